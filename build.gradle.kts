@@ -47,6 +47,10 @@ dependencies {
     modImplementation("ca.landonjw.gooeylibs:api:3.1.0-1.21.1-SNAPSHOT")
     modRuntimeOnly("ca.landonjw.gooeylibs:fabric:3.1.0-1.21.1-SNAPSHOT")
 
+    // Embedded H2 database for the optional SQL storage backend, bundled into the mod jar
+    implementation("com.h2database:h2:2.2.224")
+    include("com.h2database:h2:2.2.224")
+
     // Testing
     testImplementation("org.junit.jupiter:junit-jupiter-api:5.10.0")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:5.10.0")
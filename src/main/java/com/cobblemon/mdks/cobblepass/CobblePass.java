@@ -7,6 +7,7 @@ import com.cobblemon.mdks.cobblepass.util.CommandsRegistry;
 import com.cobblemon.mdks.cobblepass.util.Permissions;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import com.cobblemon.mdks.cobblepass.listeners.*;
 import com.cobblemon.mod.common.api.Priority;
@@ -43,6 +44,8 @@ public class CobblePass implements ModInitializer {
         // Register event listeners
         ServerLifecycleEvents.SERVER_STARTED.register(server -> {
             CobblePass.server = server;
+            CobblePass.config.compileXpRules();
+            CobblePass.battlePass.start();
             CatchPokemonListener.register();
             DefeatPokemonListener.register();
             EvolvePokemonListener.register();
@@ -50,11 +53,16 @@ public class CobblePass implements ModInitializer {
             TradePokemonListener.register();
         });
 
-        // Register player join event
+        // Apply the XP collected by the listeners once per tick
+        ServerTickEvents.END_SERVER_TICK.register(server -> CobblePass.battlePass.flushXP());
+
+        // Start loading the player's battle pass data off-thread as soon as their connection is set up
+        ServerPlayConnectionEvents.INIT.register((handler, mcServer) -> {
+            CobblePass.battlePass.preloadPlayerPass(handler.getPlayer().getUUID());
+        });
+
         ServerPlayConnectionEvents.JOIN.register((handler, sender, mcServer) -> {
-            // Load player's battle pass data when they join
-            CobblePass.battlePass.loadPlayerPass(handler.getPlayer().getUUID().toString());
-            CobblePass.LOGGER.info("Loaded battle pass data for player " + handler.getPlayer().getName().getString());
+            CobblePass.battlePass.onPlayerJoin(handler.getPlayer());
         });
 
         // Register player disconnect event
@@ -62,8 +70,8 @@ public class CobblePass implements ModInitializer {
             // Save player's battle pass data when they leave
             String playerName = handler.getPlayer().getName().getString();
             String uuid = handler.getPlayer().getUUID().toString();
-            CobblePass.battlePass.savePlayerPass(uuid);
-            CobblePass.LOGGER.info("Saved battle pass data for player " + playerName);
+            CobblePass.battlePass.unloadPlayerPass(uuid)
+                    .thenRun(() -> CobblePass.LOGGER.info("Saved battle pass data for player " + playerName));
         });
 
         // Register server stopping event to save all data
@@ -90,6 +98,8 @@ public class CobblePass implements ModInitializer {
         
         // Create new, empty objects to replace the old ones in memory
         config = new Config();
+        // A fresh config starts at season 0, which untagged records from before seasons count as
+        config.advanceSeason();
         if (battlePass != null) {
             battlePass.resetData();
         } else {
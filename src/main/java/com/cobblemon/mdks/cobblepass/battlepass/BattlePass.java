@@ -1,93 +1,286 @@
 package com.cobblemon.mdks.cobblepass.battlepass;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.config.AutoClaimMode;
 import com.cobblemon.mdks.cobblepass.util.Constants;
-import com.cobblemon.mdks.cobblepass.util.Utils;
 import com.cobblemon.mdks.cobblepass.config.TierConfig;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.cobblemon.mdks.cobblepass.data.Reward;
+import com.cobblemon.mdks.cobblepass.data.RewardErrorReport;
+import com.cobblemon.mdks.cobblepass.data.RewardType;
+import com.cobblemon.mdks.cobblepass.storage.SaveQueue;
+import com.cobblemon.mdks.cobblepass.storage.StorageBackend;
+import com.cobblemon.mdks.cobblepass.storage.XpJournal;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
 
-import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class BattlePass {
+    // Stale records removed per I/O task after a reset, and the pause between tasks
+    private static final int PURGE_BATCH_SIZE = 200;
+    private static final long PURGE_PAUSE_MILLIS = 1000;
+    // How often battles that ended without a victory or flee event are looked for
+    private static final int BATTLE_SWEEP_TICKS = 200;
+    // Pause before reading a pass again after the read failed
+    private static final long LOAD_RETRY_SECONDS = 30;
+
+    // Passes of players who are currently online
     private final Map<UUID, PlayerBattlePass> playerPasses = new ConcurrentHashMap<>();
+    // Passes of offline players looked up by admin commands, evicted least recently used first
+    private final Map<UUID, PlayerBattlePass> offlinePasses;
+    // Reads in flight for players who are logging in
+    private final Map<UUID, CompletableFuture<PlayerBattlePass>> pendingLoads = new ConcurrentHashMap<>();
+    // XP earned by players whose pass has not finished loading yet
+    private final Map<UUID, Integer> pendingXp = new ConcurrentHashMap<>();
+    // XP recorded by event listeners during the current tick
+    private final XpAccumulator xpAccumulator = new XpAccumulator();
+    // Defeat XP collected per battle until the battle ends
+    private final BattleXpTracker battleXp = new BattleXpTracker(xpAccumulator);
+    private int ticks;
+    private final XpBoostManager boosts;
+    private final XpNotifier notifier = new XpNotifier();
+    private RewardMailbox mailbox;
+    private final RewardErrorReport rewardErrors = new RewardErrorReport();
+    // Players who levelled up and get their rewards claimed on the next tick
+    private final Set<UUID> autoClaimQueue = ConcurrentHashMap.newKeySet();
+    // Opened again by start() after save() has closed them, e.g. when a singleplayer world is reopened
+    private StorageBackend storage;
+    // Only set in journaled mode
+    private XpJournal journal;
+    // Receives every change to a loaded pass: the journal, a write-through backend or nothing
+    private PassChangeListener changeListener;
+    private SaveQueue saveQueue;
+    private boolean closed;
     private TierConfig tierConfig;
 
     public BattlePass() {
         this.tierConfig = new TierConfig();
-        // Ensure player data directory exists
-        File playerDir = new File(Constants.PLAYER_DATA_DIR);
-        if (!playerDir.exists()) {
-            playerDir.mkdirs();
+        this.offlinePasses = Collections.synchronizedMap(new OfflineCache(CobblePass.config.getOfflineCacheSize()));
+        openStorage();
+        this.boosts = new XpBoostManager(task -> saveQueue.submit(() -> {
+            task.run();
+            return null;
+        }));
+    }
+
+    private void openStorage() {
+        this.storage = StorageBackend.create(CobblePass.config.getStorageBackend(),
+                CobblePass.config.isBinaryPlayerData(), CobblePass.config.isPrettyPlayerData());
+        if (CobblePass.config.isJournalMode() && storage.isWriteThrough()) {
+            CobblePass.LOGGER.warn("journalMode has no effect with the " + CobblePass.config.getStorageBackend() + " storage backend");
         }
+        this.journal = CobblePass.config.isJournalMode() && !storage.isWriteThrough()
+                ? new XpJournal(Constants.JOURNAL_DIR) : null;
+        this.changeListener = storage.isWriteThrough() ? (PassChangeListener) storage : journal;
+        this.saveQueue = new SaveQueue(this::getLoadedPasses, storage, journal);
+        this.mailbox = new RewardMailbox(saveQueue);
     }
 
     public void init() {
         this.tierConfig.load(); // Load the tier configuration from tiers.json
+        // Player data is loaded when a player joins, see preloadPlayerPass
+    }
 
-        // Load player data
-        File playerDir = new File(Constants.PLAYER_DATA_DIR);
-        if (playerDir.exists() && playerDir.isDirectory()) {
-            File[] files = playerDir.listFiles();
-            if (files != null) {
-                for (File file : files) {
-                    if (file.isFile() && file.getName().endsWith(".json")) {
-                        loadPlayerPass(file.getName().replace(".json", ""));
-                    }
-                }
+    /**
+     * Start reading a player's pass on the I/O thread as soon as their connection is set up.
+     * The pass is installed on the server thread when the read completes; until then
+     * {@link #getPlayerPass(ServerPlayer)} returns null and XP is buffered.
+     */
+    public void preloadPlayerPass(UUID playerId) {
+        if (playerPasses.containsKey(playerId) || pendingLoads.containsKey(playerId)) {
+            // Already loaded, or rejoined before the pass from the last session was unloaded
+            return;
+        }
+
+        // Reuse the cached copy if an admin command touched this player while they were offline.
+        // The player is not in the player list until they have joined, so don't check for them.
+        PlayerBattlePass cached = offlinePasses.remove(playerId);
+        if (cached != null) {
+            installPlayerPass(playerId, cached, true);
+            return;
+        }
+
+        loadPlayerPass(playerId);
+    }
+
+    private void loadPlayerPass(UUID playerId) {
+        CompletableFuture<PlayerBattlePass> load = saveQueue.submit(() -> readPlayerPass(playerId));
+        pendingLoads.put(playerId, load);
+        load.whenComplete((pass, error) -> CobblePass.server.execute(() -> {
+            if (error != null) {
+                CobblePass.LOGGER.error("Failed to load battle pass for " + playerId, error);
+            }
+            if (pass == null) {
+                retryLoad(playerId);
+                return;
             }
+            installPlayerPass(playerId, pass, false);
+        }));
+    }
+
+    /**
+     * The stored pass could not be read. A stand-in pass would be saved over the real one,
+     * so the player stays loading, with XP buffered, until a read succeeds.
+     */
+    private void retryLoad(UUID playerId) {
+        if (CobblePass.server.getPlayerList().getPlayer(playerId) == null) {
+            // Read again when they next join
+            pendingLoads.remove(playerId);
+            return;
         }
+        CobblePass.LOGGER.warn("Could not read the battle pass of " + playerId + ", trying again in " + LOAD_RETRY_SECONDS + " seconds");
+        CompletableFuture.delayedExecutor(LOAD_RETRY_SECONDS, TimeUnit.SECONDS)
+                .execute(() -> CobblePass.server.execute(() -> loadPlayerPass(playerId)));
     }
 
-    public void loadPlayerPass(String uuid) {
-        String filename = uuid + ".json";
-        String content = Utils.readFileSync(Constants.PLAYER_DATA_DIR, filename);
-        
-        if (content == null || content.isEmpty()) {
-            // Create new player pass if file doesn't exist
-            PlayerBattlePass newPass = new PlayerBattlePass(UUID.fromString(uuid));
-            playerPasses.put(UUID.fromString(uuid), newPass);
-            // Save the new pass immediately
-            savePlayerPass(uuid);
+    /**
+     * @param connecting the player is still joining, so is not in the player list yet
+     */
+    private void installPlayerPass(UUID playerId, PlayerBattlePass pass, boolean connecting) {
+        pendingLoads.remove(playerId);
+        pass.setListener(changeListener);
+
+        Integer bufferedXp = pendingXp.remove(playerId);
+        if (bufferedXp != null) {
+            pass.addXP(bufferedXp);
+        }
+
+        if (!connecting && CobblePass.server.getPlayerList().getPlayer(playerId) == null) {
+            // Disconnected before the load finished; keep it around until it has been saved
+            offlinePasses.put(playerId, pass);
             return;
         }
+        playerPasses.put(playerId, pass);
+        CobblePass.LOGGER.info("Loaded battle pass data for player " + playerId);
+        if (CobblePass.config.getAutoClaim() != AutoClaimMode.OFF) {
+            // Levels gained while offline
+            autoClaimQueue.add(playerId);
+        }
+    }
+
+    /**
+     * Tell a player who just joined about rewards waiting in their mailbox
+     */
+    public void onPlayerJoin(ServerPlayer player) {
+        if (mailbox.hasMail(player.getUUID())) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_MAILBOX_WAITING));
+        }
+    }
+
+    public boolean isLoaded(UUID playerId) {
+        return playerPasses.containsKey(playerId);
+    }
 
-        try {
-            JsonObject json = JsonParser.parseString(content).getAsJsonObject();
-            PlayerBattlePass pass = new PlayerBattlePass(UUID.fromString(uuid));
-            pass.fromJson(json);
-            playerPasses.put(UUID.fromString(uuid), pass);
-            CobblePass.LOGGER.debug("Loaded battle pass for " + uuid + " with level " + pass.getLevel() + " and XP " + pass.getXP());
-        } catch (Exception e) {
-            CobblePass.LOGGER.error("Failed to load battle pass for " + uuid + ". The file may be corrupt.", e);
-            
-            // Backup the corrupted file instead of allowing it to be overwritten.
-            File corruptedFile = new File(Constants.PLAYER_DATA_DIR, uuid + ".json");
-            File backupFile = new File(Constants.PLAYER_DATA_DIR, uuid + ".json.corrupted");
-            if (corruptedFile.exists()) {
-                corruptedFile.renameTo(backupFile);
-                CobblePass.LOGGER.error("The corrupted file has been renamed to " + backupFile.getName() + " for manual review.");
+    /**
+     * Read a pass from storage, creating a new one if the player has none for the current
+     * season yet. Returns null if stored data exists but could not be read.
+     */
+    private PlayerBattlePass readPlayerPass(UUID playerId) {
+        return storage.loadCurrent(playerId, CobblePass.config.getCurrentSeason());
+    }
+
+    /**
+     * Save a player's pass after they disconnect and drop it from memory once the write
+     * has completed, unless they have logged back in by then
+     */
+    public CompletableFuture<Void> unloadPlayerPass(String uuid) {
+        UUID playerId = UUID.fromString(uuid);
+        xpAccumulator.drain(playerId, this::applyXP);
+        notifier.forget(playerId);
+        mailbox.unload(playerId);
+        PlayerBattlePass pass = playerPasses.get(playerId);
+        if (pass == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return saveQueue.save(pass).thenRun(() -> CobblePass.server.execute(() -> {
+            if (CobblePass.server.getPlayerList().getPlayer(playerId) == null
+                    && playerPasses.remove(playerId, pass) && pass.isDirty()) {
+                // Changed while the disconnect save was running
+                saveQueue.save(pass);
             }
-            // By not creating a new pass here, the player won't be able to interact with the pass
-            // until the issue is fixed, but it prevents data loss.
+        }));
+    }
+
+    private Collection<PlayerBattlePass> getLoadedPasses() {
+        List<PlayerBattlePass> passes = new ArrayList<>(playerPasses.values());
+        synchronized (offlinePasses) {
+            passes.addAll(offlinePasses.values());
+        }
+        return passes;
+    }
+
+    /**
+     * Queue an immediate write of a player's pass on the I/O thread. In journaled mode its
+     * changes are already in the journal, so this only waits for them to be synced, and a
+     * write-through backend already has them.
+     */
+    public CompletableFuture<Void> savePlayerPass(String uuid) {
+        UUID playerId = UUID.fromString(uuid);
+        PlayerBattlePass pass = playerPasses.get(playerId);
+        if (pass == null) {
+            pass = offlinePasses.get(playerId);
         }
+        if (pass == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (journal != null) {
+            return journal.commit();
+        }
+        if (storage.isWriteThrough()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return saveQueue.save(pass);
     }
 
-    public void savePlayerPass(String uuid) {
-        PlayerBattlePass pass = playerPasses.get(UUID.fromString(uuid));
-        if (pass != null) {
-            String filename = uuid + ".json";
-            Utils.writeFileSync(Constants.PLAYER_DATA_DIR, filename,
-                    Utils.newGson().toJson(pass.toJson()));
-            CobblePass.LOGGER.debug("Saved battle pass for " + uuid + " with level " + pass.getLevel() + " and XP " + pass.getXP());
+    /**
+     * Start flushing dirty passes in the background. In journaled mode, changes left in
+     * the journal by a crash are replayed onto the stored passes first.
+     */
+    public void start() {
+        if (closed) {
+            // Everything held from the last server was saved when it stopped
+            playerPasses.clear();
+            offlinePasses.clear();
+            pendingLoads.clear();
+            pendingXp.clear();
+            autoClaimQueue.clear();
+            openStorage();
+            closed = false;
         }
+        if (journal != null) {
+            journal.recover(storage);
+            journal.start(CobblePass.config.getJournalSyncMillis());
+        }
+        saveQueue.start(CobblePass.config.getSaveIntervalSeconds());
+        boosts.load();
+        mailbox.start();
+        // Tiers are first loaded before the registries exist
+        tierConfig.compile(CobblePass.server.registryAccess());
+    }
+
+    public int getSaveQueueDepth() {
+        return saveQueue.getQueueDepth();
+    }
+
+    /**
+     * Look up the best passes on the I/O thread. Changes since the last flush are not included.
+     */
+    public CompletableFuture<List<PlayerBattlePass>> getTopPlayers(int limit) {
+        int season = CobblePass.config.getCurrentSeason();
+        return saveQueue.submit(() -> storage.getTop(limit, season));
     }
 
 
@@ -97,45 +290,144 @@ public class BattlePass {
     }
 
     public void save() {
-        for (Map.Entry<UUID, PlayerBattlePass> entry : playerPasses.entrySet()) {
-            String filename = entry.getKey() + ".json";
-            Utils.writeFileSync(Constants.PLAYER_DATA_DIR, filename,
-                    Utils.newGson().toJson(entry.getValue().toJson()));
+        // Battles still running keep what was earned so far
+        battleXp.awardAll();
+        xpAccumulator.drain(this::applyXP, playerId -> true);
+        // Drains queued writes and flushes every dirty pass before returning
+        saveQueue.stop();
+        // Nothing writes to storage once the queue has stopped
+        storage.close();
+        if (journal != null) {
+            journal.close();
         }
+        closed = true;
         tierConfig.save();
     }
 
+    /**
+     * Get the pass of an online player, or null while it is still loading
+     */
     public PlayerBattlePass getPlayerPass(ServerPlayer player) {
         UUID uuid = player.getUUID();
-        // This check is now very important. If the map doesn't contain the UUID,
-        // it could be because their file was corrupt.
-        if (!playerPasses.containsKey(uuid)) {
-            loadPlayerPass(uuid.toString());
-        }
-        
-        // This will now only create a new pass if no file existed in the first place.
-        // If loading failed, it will return null, preventing interaction and data wipe.
-        return playerPasses.computeIfAbsent(uuid,
-                id -> {
-                    // This block now only runs for a genuinely new player.
-                    PlayerBattlePass newPass = new PlayerBattlePass(id);
-                    savePlayerPass(id.toString());
-                    return newPass;
-                });
+        PlayerBattlePass pass = playerPasses.get(uuid);
+        if (pass == null) {
+            // Normally started on connect; covers passes dropped by a reset while online
+            preloadPlayerPass(uuid);
+        }
+        return pass;
+    }
+
+    /**
+     * Get the pass of a player who may be offline. Offline passes are kept in a bounded
+     * cache so repeated admin commands don't re-read the file every time.
+     */
+    public PlayerBattlePass getPlayerPass(UUID playerId) {
+        PlayerBattlePass pass = playerPasses.get(playerId);
+        if (pass != null || pendingLoads.containsKey(playerId)) {
+            return pass;
+        }
+        synchronized (offlinePasses) {
+            pass = offlinePasses.get(playerId);
+            if (pass == null) {
+                pass = readPlayerPass(playerId);
+                if (pass != null) {
+                    pass.setListener(changeListener);
+                    offlinePasses.put(playerId, pass);
+                }
+            }
+        }
+        return pass;
     }
 
     public void addXP(ServerPlayer player, int amount) {
         PlayerBattlePass pass = getPlayerPass(player);
+        if (pass == null) {
+            // Applied once the pass has been loaded
+            pendingXp.merge(player.getUUID(), amount, Integer::sum);
+            return;
+        }
+        // The pass marks itself dirty and is written by the next periodic flush
+        int levelBefore = pass.getLevel();
         pass.addXP(amount);
+        queueAutoClaim(player.getUUID(), levelBefore, pass.getLevel());
+    }
 
-        // Save after XP change - use sync to ensure level progression is saved immediately
-        savePlayerPass(player.getUUID().toString());
+    private void queueAutoClaim(UUID playerId, int levelBefore, int levelAfter) {
+        if (levelAfter > levelBefore && CobblePass.config.getAutoClaim() != AutoClaimMode.OFF) {
+            autoClaimQueue.add(playerId);
+        }
+    }
+
+    /**
+     * Record XP earned from an event. It is applied with everything else the player
+     * earned this tick by {@link #flushXP()}.
+     */
+    public void recordXP(ServerPlayer player, XpSource source, int amount) {
+        xpAccumulator.record(player.getUUID(), source, amount);
+    }
+
+    /**
+     * Apply the XP recorded during this tick, one level-up check per player.
+     * Called at the end of every server tick.
+     */
+    public void flushXP() {
+        // Level-ups from the last tick
+        processAutoClaims();
+        if (++ticks % BATTLE_SWEEP_TICKS == 0) {
+            battleXp.sweep();
+        }
+        boosts.tick();
+        xpAccumulator.drain(this::applyXP, playerId -> CobblePass.server.getPlayerList().getPlayer(playerId) == null);
+        notifier.tick(CobblePass.config.getNotifyWindowTicks());
+    }
+
+    public BattleXpTracker getBattleXpTracker() {
+        return battleXp;
+    }
+
+    public XpBoostManager getBoosts() {
+        return boosts;
+    }
+
+    public RewardMailbox getMailbox() {
+        return mailbox;
+    }
+
+    public RewardErrorReport getRewardErrors() {
+        return rewardErrors;
+    }
+
+    private void applyXP(UUID playerId, int[] xpBySource, int total) {
+        double multiplier = boosts.multiplierFor(playerId);
+        if (multiplier != 1.0) {
+            total = (int) Math.min(Integer.MAX_VALUE, Math.round(total * multiplier));
+        }
+        PlayerBattlePass pass = playerPasses.get(playerId);
+        if (pass == null) {
+            // Applied once the pass has been loaded
+            pendingXp.merge(playerId, total, Integer::sum);
+            if (CobblePass.server.getPlayerList().getPlayer(playerId) != null) {
+                preloadPlayerPass(playerId);
+            }
+            return;
+        }
+        int levelBefore = pass.getLevel();
+        pass.addXP(total);
+        queueAutoClaim(playerId, levelBefore, pass.getLevel());
+        if (CobblePass.config.isXpNotifications()) {
+            notifier.record(playerId, total, levelBefore, pass.getLevel());
+        }
     }
 
     public boolean claimReward(ServerPlayer player, int level, boolean premium) {
         PlayerBattlePass pass = getPlayerPass(player);
         BattlePassTier tier = getTier(level);
 
+        if (pass == null) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_PASS_LOADING));
+            return false;
+        }
+
         if (tier == null) {
             return false;
         }
@@ -164,11 +456,14 @@ public class BattlePass {
             return false;
         }
 
-        // Mark as claimed first
-        if (premium) {
-            pass.claimPremiumReward(level);
-        } else {
-            pass.claimFreeReward(level);
+        // Mark as claimed first; a concurrent claim of the same level loses here
+        boolean claimed = premium ? pass.claimPremiumReward(level) : pass.claimFreeReward(level);
+        if (!claimed) {
+            player.sendSystemMessage(Component.literal(String.format(
+                Constants.MSG_ALREADY_CLAIMED_LEVEL,
+                level
+            )));
+            return false;
         }
 
         // Save claim state immediately
@@ -183,6 +478,137 @@ public class BattlePass {
         return true;
     }
 
+    /**
+     * Claim every reward the player has reached but not claimed yet
+     * @return The number of rewards claimed
+     */
+    public int claimAll(ServerPlayer player) {
+        PlayerBattlePass pass = getPlayerPass(player);
+        if (pass == null) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_PASS_LOADING));
+            return 0;
+        }
+
+        int claimed = claimPending(player, pass, pass.isPremium());
+        if (claimed == 0) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_NOTHING_TO_CLAIM));
+            return 0;
+        }
+        player.sendSystemMessage(Component.literal(String.format(Constants.MSG_CLAIMED_ALL, claimed)));
+        return claimed;
+    }
+
+    /**
+     * Claim and grant every reached, unclaimed reward as one batch: one save, and items
+     * merged into as few stacks as possible
+     * @return The number of rewards claimed
+     */
+    private int claimPending(ServerPlayer player, PlayerBattlePass pass, boolean includePremium) {
+        List<BattlePassTier> free = new ArrayList<>();
+        for (int level : pass.getUnclaimedFreeLevels()) {
+            BattlePassTier tier = getTier(level);
+            if (tier != null && tier.hasFreeReward() && pass.claimFreeReward(level)) {
+                free.add(tier);
+            }
+        }
+        List<BattlePassTier> premium = new ArrayList<>();
+        if (includePremium) {
+            for (int level : pass.getUnclaimedPremiumLevels()) {
+                BattlePassTier tier = getTier(level);
+                if (tier != null && tier.hasPremiumReward() && pass.claimPremiumReward(level)) {
+                    premium.add(tier);
+                }
+            }
+        }
+        int claimed = free.size() + premium.size();
+        if (claimed == 0) {
+            return 0;
+        }
+
+        // Save claim state once for the whole batch, then grant
+        savePlayerPass(player.getUUID().toString());
+
+        List<ItemStack> items = new ArrayList<>();
+        grantBatch(player, free, false, items);
+        grantBatch(player, premium, true, items);
+        for (ItemStack item : items) {
+            mailbox.give(player, item);
+        }
+        return claimed;
+    }
+
+    /**
+     * Claim the rewards of players who levelled up since the last tick, if auto-claim is
+     * on. However many levels a player gained, they get one batch and one message.
+     */
+    private void processAutoClaims() {
+        if (autoClaimQueue.isEmpty()) {
+            return;
+        }
+        AutoClaimMode mode = CobblePass.config.getAutoClaim();
+        for (Iterator<UUID> queued = autoClaimQueue.iterator(); queued.hasNext(); ) {
+            UUID playerId = queued.next();
+            queued.remove();
+            ServerPlayer player = CobblePass.server.getPlayerList().getPlayer(playerId);
+            PlayerBattlePass pass = playerPasses.get(playerId);
+            if (mode == AutoClaimMode.OFF || player == null || pass == null) {
+                // Players who left are caught up when they next join
+                continue;
+            }
+            int claimed = claimPending(player, pass, mode == AutoClaimMode.ALL && pass.isPremium());
+            if (claimed > 0) {
+                player.sendSystemMessage(Component.literal(String.format(Constants.MSG_AUTO_CLAIMED, claimed)));
+            }
+        }
+    }
+
+    private static void grantBatch(ServerPlayer player, List<BattlePassTier> tiers, boolean premium, List<ItemStack> items) {
+        for (BattlePassTier tier : tiers) {
+            Reward reward = premium ? tier.getPremiumReward() : tier.getFreeReward();
+            for (Reward rolled : reward.roll(player.getUUID(), tier.getLevel(), premium)) {
+                if (rolled.getType() == RewardType.ITEM) {
+                    mergeInto(items, rolled.getItemStack());
+                } else {
+                    rolled.grant(player, tier.getLevel(), premium);
+                }
+            }
+        }
+    }
+
+    /**
+     * Give a player a tier's reward without claiming it, e.g. as compensation. Rewards for
+     * offline players are delivered to their mailbox.
+     * @return false if the tier has no such reward
+     */
+    public boolean giveReward(UUID playerId, int level, boolean premium) {
+        BattlePassTier tier = getTier(level);
+        if (tier == null || !(premium ? tier.hasPremiumReward() : tier.hasFreeReward())) {
+            return false;
+        }
+        Reward reward = premium ? tier.getPremiumReward() : tier.getFreeReward();
+        ServerPlayer player = CobblePass.server.getPlayerList().getPlayer(playerId);
+        if (player != null) {
+            reward.grant(player, level, premium);
+        } else {
+            List<MailEntry> entries = new ArrayList<>();
+            for (Reward rolled : reward.roll(playerId, level, premium)) {
+                entries.add(MailEntry.reward(rolled, level, premium));
+            }
+            mailbox.deliver(playerId, entries);
+        }
+        return true;
+    }
+
+    private static void mergeInto(List<ItemStack> items, ItemStack stack) {
+        for (ItemStack existing : items) {
+            if (ItemStack.isSameItemSameComponents(existing, stack)) {
+                existing.grow(stack.getCount());
+                return;
+            }
+        }
+        items.add(stack);
+    }
+
     public BattlePassTier getTier(int level) {
         return tierConfig.getTier(level);
     }
@@ -199,24 +625,66 @@ public class BattlePass {
     public void resetData() {
         this.tierConfig = new TierConfig();
         this.playerPasses.clear();
+        this.offlinePasses.clear();
+        this.pendingXp.clear();
+        this.xpAccumulator.clear();
+        this.battleXp.clear();
+        this.autoClaimQueue.clear();
     }
 
+    /**
+     * Start every player over in the current season. Stored records of earlier seasons
+     * are ignored from now on and removed by a throttled background job.
+     */
     public void resetAllPlayerData() {
         this.playerPasses.clear(); // Clear the in-memory map
+        this.offlinePasses.clear();
+        this.pendingXp.clear();
+        this.xpAccumulator.clear();
+        this.battleXp.clear();
+        this.autoClaimQueue.clear();
+
+        if (journal != null) {
+            // Keep the old records as an audit trail but never replay them
+            journal.discard();
+        }
+        purgeStaleRecords(CobblePass.config.getCurrentSeason(), 0);
+    }
 
-        // Delete all player data files on disk
-        File playersDir = new File(Constants.PLAYER_DATA_DIR);
-        if (playersDir.exists()) {
-            try {
-                // Walk the directory and delete all .json files within it
-                java.nio.file.Files.walk(playersDir.toPath())
-                    .filter(p -> p.toString().endsWith(".json"))
-                    .map(java.nio.file.Path::toFile)
-                    .forEach(File::delete);
-                CobblePass.LOGGER.info("All player battle pass data has been reset.");
-            } catch (java.io.IOException e) {
-                CobblePass.LOGGER.error("Failed to reset player battle pass data files.", e);
+    private void purgeStaleRecords(int season, int deletedSoFar) {
+        saveQueue.submit(() -> storage.purgeStale(season, PURGE_BATCH_SIZE)).whenComplete((deleted, error) -> {
+            if (error != null) {
+                CobblePass.LOGGER.error("Failed to remove battle pass data of earlier seasons", error);
+                return;
+            }
+            int total = deletedSoFar + deleted;
+            if (deleted < PURGE_BATCH_SIZE) {
+                CobblePass.LOGGER.info("Removed " + total + " battle pass records of earlier seasons");
+            } else if (season == CobblePass.config.getCurrentSeason()) {
+                // A newer reset has started its own job otherwise
+                CompletableFuture.delayedExecutor(PURGE_PAUSE_MILLIS, TimeUnit.MILLISECONDS)
+                        .execute(() -> purgeStaleRecords(season, total));
+            }
+        });
+    }
+
+    private class OfflineCache extends LinkedHashMap<UUID, PlayerBattlePass> {
+        private final int maxSize;
+
+        OfflineCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, PlayerBattlePass> eldest) {
+            if (size() <= maxSize) {
+                return false;
+            }
+            if (eldest.getValue().isDirty()) {
+                saveQueue.save(eldest.getValue());
             }
+            return true;
         }
     }
 }
@@ -1,22 +1,16 @@
 package com.cobblemon.mdks.cobblepass.battlepass;
 
 import com.cobblemon.mdks.cobblepass.data.Reward;
-import com.cobblemon.mdks.cobblepass.data.RewardType;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.core.RegistryAccess;
-import net.minecraft.nbt.TagParser;
-import com.mojang.brigadier.exceptions.CommandSyntaxException;
-import com.cobblemon.mod.common.pokemon.Species;
-import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
-import com.cobblemon.mod.common.item.PokemonItem;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 public class BattlePassTier {
     private final int level;
     private final Reward freeReward;
     private final Reward premiumReward;
+    // Menu stacks, built when the tiers are compiled; a reload creates new tiers
+    private ItemStack freeDisplay;
+    private ItemStack premiumDisplay;
 
     public BattlePassTier(int level, Reward freeReward, Reward premiumReward) {
         this.level = level;
@@ -38,107 +32,48 @@ public class BattlePassTier {
 
     public void grantFreeReward(ServerPlayer player) {
         if (freeReward != null) {
-            freeReward.grant(player);
+            freeReward.grant(player, level, false);
         }
     }
 
     public void grantPremiumReward(ServerPlayer player) {
         if (premiumReward != null) {
-            premiumReward.grant(player);
+            premiumReward.grant(player, level, true);
         }
     }
 
-    public ItemStack getFreeRewardItem(RegistryAccess registryAccess) {
-        if (freeReward == null) return ItemStack.EMPTY;
-        
-        if (freeReward.getType() == RewardType.COMMAND) {
-            try {
-                JsonObject data = freeReward.getData();
-                if (data != null && data.has("id")) {
-                    return ItemStack.parse(registryAccess, TagParser.parseTag("{id:\"" + data.get("id").getAsString() + "\",Count:1}")).orElse(ItemStack.EMPTY);
-                }
-            } catch (CommandSyntaxException ex) {
-                return ItemStack.EMPTY;
-            }
-        } else if (freeReward.getType() == RewardType.POKEMON) {
-            try {
-                // Parse Pokemon data to get species
-                JsonObject pokemonData = freeReward.getData();
-                String speciesName = pokemonData.get("species").getAsString();
-                
-                // Create Pokemon instance
-                Species species = PokemonSpecies.INSTANCE.getByName(speciesName);
-                if (species != null) {
-                    var pokemon = species.create(1);
-                    if (pokemonData.has("shiny") && pokemonData.get("shiny").getAsBoolean()) {
-                        pokemon.setShiny(true);
-                    }
-                    if (pokemonData.has("level")) {
-                        pokemon.setLevel(pokemonData.get("level").getAsInt());
-                    }
-                    return PokemonItem.from(pokemon, 1);
-                }
-            } catch (Exception e) {
-                // Fallback to Poké Ball if parsing fails
-                try {
-                    return ItemStack.parse(registryAccess, TagParser.parseTag("{id:\"cobblemon:poke_ball\",Count:1}")).orElse(ItemStack.EMPTY);
-                } catch (CommandSyntaxException ex) {
-                    return ItemStack.EMPTY;
-                }
-            }
+    /**
+     * Build the menu stacks of both rewards, with their name and lore. Called after the
+     * rewards have been compiled.
+     */
+    public void buildDisplayItems() {
+        freeDisplay = RewardDisplay.build(freeReward, false);
+        premiumDisplay = RewardDisplay.build(premiumReward, true);
+    }
+
+    /**
+     * A copy of the stack that shows the free reward in the menu
+     */
+    public ItemStack getFreeRewardItem() {
+        if (freeDisplay == null) {
+            buildDisplayItems();
         }
-        
-        return freeReward.getItemStack(registryAccess);
+        return freeDisplay.copy();
     }
 
-    public ItemStack getPremiumRewardItem(RegistryAccess registryAccess) {
-        if (premiumReward == null) return ItemStack.EMPTY;
-        
-        if (premiumReward.getType() == RewardType.COMMAND) {
-            try {
-                JsonObject data = premiumReward.getData();
-                if (data != null && data.has("id")) {
-                    return ItemStack.parse(registryAccess, TagParser.parseTag("{id:\"" + data.get("id").getAsString() + "\",Count:1}")).orElse(ItemStack.EMPTY);
-                }
-            } catch (CommandSyntaxException ex) {
-                return ItemStack.EMPTY;
-            }
-        } else if (premiumReward.getType() == RewardType.POKEMON) {
-            try {
-                // Parse Pokemon data to get species
-                JsonObject pokemonData = premiumReward.getData();
-                String speciesName = pokemonData.get("species").getAsString();
-                
-                // Create Pokemon instance
-                Species species = PokemonSpecies.INSTANCE.getByName(speciesName);
-                if (species != null) {
-                    var pokemon = species.create(1);
-                    if (pokemonData.has("shiny") && pokemonData.get("shiny").getAsBoolean()) {
-                        pokemon.setShiny(true);
-                    }
-                    if (pokemonData.has("level")) {
-                        pokemon.setLevel(pokemonData.get("level").getAsInt());
-                    }
-                    return PokemonItem.from(pokemon, 1);
-                }
-            } catch (Exception e) {
-                // Fallback to Master Ball if parsing fails
-                try {
-                    return ItemStack.parse(registryAccess, TagParser.parseTag("{id:\"cobblemon:master_ball\",Count:1}")).orElse(ItemStack.EMPTY);
-                } catch (CommandSyntaxException ex) {
-                    return ItemStack.EMPTY;
-                }
-            }
+    public ItemStack getPremiumRewardItem() {
+        if (premiumDisplay == null) {
+            buildDisplayItems();
         }
-        
-        return premiumReward.getItemStack(registryAccess);
+        return premiumDisplay.copy();
     }
 
+    // Rewards that failed to compile are reported at load and can't be claimed
     public boolean hasFreeReward() {
-        return freeReward != null;
+        return freeReward != null && freeReward.isValid();
     }
 
     public boolean hasPremiumReward() {
-        return premiumReward != null;
+        return premiumReward != null && premiumReward.isValid();
     }
 }
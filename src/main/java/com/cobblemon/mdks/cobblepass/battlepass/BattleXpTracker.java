@@ -0,0 +1,98 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mod.common.api.battles.model.PokemonBattle;
+import com.cobblemon.mod.common.api.battles.model.actor.BattleActor;
+import com.cobblemon.mod.common.battles.BattleRegistry;
+import com.cobblemon.mod.common.battles.actor.PlayerBattleActor;
+import com.cobblemon.mod.common.battles.pokemon.BattlePokemon;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adds up the defeat XP each player earns during a battle and awards it in one go when
+ * the battle ends, instead of on every faint. Battles that end without a victory or flee
+ * event are found by {@link #sweep()} and awarded what was earned up to then.
+ */
+public class BattleXpTracker {
+    private final XpAccumulator accumulator;
+    // Defeat XP per player, per running battle
+    private final Map<UUID, Map<UUID, Integer>> battles = new ConcurrentHashMap<>();
+
+    public BattleXpTracker(XpAccumulator accumulator) {
+        this.accumulator = accumulator;
+    }
+
+    /**
+     * Credit the players on the other side of a fainted Pokémon
+     */
+    public void recordFaint(PokemonBattle battle, BattlePokemon fainted) {
+        int xp = CobblePass.config.getXpRules().xpFor(XpSource.DEFEAT, fainted.getEffectedPokemon());
+        if (xp == 0) {
+            return;
+        }
+        Map<UUID, Integer> tally = battles.computeIfAbsent(battle.getBattleId(), id -> new HashMap<>());
+        synchronized (tally) {
+            for (BattleActor actor : fainted.getActor().getSide().getOppositeSide().getActors()) {
+                if (actor instanceof PlayerBattleActor) {
+                    tally.merge(actor.getUuid(), xp, Integer::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * Award the battle's XP, plus the win bonus for every player among the winners
+     */
+    public void end(PokemonBattle battle, Collection<BattleActor> winners) {
+        award(battle.getBattleId());
+        int bonus = CobblePass.config.getXpRules().xpFor(XpSource.BATTLE_WIN, null);
+        if (bonus == 0) {
+            return;
+        }
+        for (BattleActor actor : winners) {
+            if (actor instanceof PlayerBattleActor) {
+                accumulator.record(actor.getUuid(), XpSource.BATTLE_WIN, bonus);
+            }
+        }
+    }
+
+    /**
+     * Award and forget battles that are no longer running, e.g. ones that were abandoned
+     */
+    public void sweep() {
+        Iterator<UUID> ids = battles.keySet().iterator();
+        while (ids.hasNext()) {
+            UUID id = ids.next();
+            if (BattleRegistry.INSTANCE.getBattle(id) == null) {
+                award(id);
+            }
+        }
+    }
+
+    /**
+     * Award every running battle's XP so far, e.g. before the server stops
+     */
+    public void awardAll() {
+        battles.keySet().forEach(this::award);
+    }
+
+    public void clear() {
+        battles.clear();
+    }
+
+    private void award(UUID battleId) {
+        Map<UUID, Integer> tally = battles.remove(battleId);
+        if (tally == null) {
+            return;
+        }
+        synchronized (tally) {
+            tally.forEach((playerId, xp) -> accumulator.record(playerId, XpSource.DEFEAT, xp));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Claimed levels stored as one bit per level, {@link #MAX_LEVELS} bits in eight longs,
+ * and bulk queries work a word at a time. Words are updated with atomic bit operations,
+ * so claims can be made from any thread without locking and {@link #set(int)} succeeds
+ * for exactly one caller per level.
+ * <p>
+ * Every bitmap covers every level a season can have, whatever the max level was when it
+ * was created, so changing the max level on a reload never loses or blocks claims.
+ */
+public class ClaimBitmap implements ClaimView {
+    /** The highest level any storage backend can keep claims for, plus one */
+    public static final int MAX_LEVELS = 512;
+
+    private final AtomicLongArray words = new AtomicLongArray(MAX_LEVELS >>> 6);
+
+    @Override
+    public boolean hasClaimed(int level) {
+        int word = level >>> 6;
+        return level >= 0 && word < words.length() && (words.get(word) & (1L << level)) != 0;
+    }
+
+    /**
+     * @return true for the one caller that claimed the level, false if it was already claimed
+     */
+    public boolean set(int level) {
+        int word = level >>> 6;
+        if (level < 0 || word >= words.length()) {
+            CobblePass.LOGGER.warn("Ignoring claim of level " + level + ", which is above the highest level that can be tracked");
+            return false;
+        }
+        long bit = 1L << level;
+        return (words.getAndAccumulate(word, bit, (current, mask) -> current | mask) & bit) == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < words.length(); i++) {
+            long bits = words.get(i);
+            while (bits != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    @Override
+    public int nextClaimed(int from) {
+        int start = Math.max(from, 0);
+        int word = start >>> 6;
+        if (word >= words.length()) {
+            return -1;
+        }
+        long bits = words.get(word) & (-1L << start);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length()) {
+                return -1;
+            }
+            bits = words.get(word);
+        }
+    }
+
+    @Override
+    public int[] unclaimedUpTo(int level) {
+        if (level < 1) {
+            return new int[0];
+        }
+        int lastWord = level >>> 6;
+        long[] unclaimed = new long[lastWord + 1];
+        int count = 0;
+        for (int i = 0; i <= lastWord; i++) {
+            long bits = ~(i < words.length() ? words.get(i) : 0);
+            if (i == 0) {
+                bits &= ~1L; // There is no level 0
+            }
+            if (i == lastWord) {
+                bits &= -1L >>> (63 - (level & 63));
+            }
+            unclaimed[i] = bits;
+            count += Long.bitCount(bits);
+        }
+
+        int[] levels = new int[count];
+        int n = 0;
+        for (int i = 0; i <= lastWord; i++) {
+            long bits = unclaimed[i];
+            while (bits != 0) {
+                levels[n++] = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return levels;
+    }
+
+    @Override
+    public int count() {
+        int count = 0;
+        for (int i = 0; i < words.length(); i++) {
+            count += Long.bitCount(words.get(i));
+        }
+        return count;
+    }
+
+    @Override
+    public long[] words() {
+        long[] copy = new long[words.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = words.get(i);
+        }
+        return copy;
+    }
+
+    @Override
+    public int highest() {
+        for (int i = words.length() - 1; i >= 0; i--) {
+            long word = words.get(i);
+            if (word != 0) {
+                return (i << 6) + 63 - Long.numberOfLeadingZeros(word);
+            }
+        }
+        return -1;
+    }
+}
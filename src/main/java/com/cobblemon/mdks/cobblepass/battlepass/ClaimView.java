@@ -0,0 +1,38 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Read-only access to the levels a player has claimed rewards for
+ */
+public interface ClaimView {
+    boolean hasClaimed(int level);
+
+    /**
+     * Visit every claimed level in ascending order
+     */
+    void forEach(IntConsumer action);
+
+    /**
+     * The lowest claimed level at or above the given one, or -1 if there is none
+     */
+    int nextClaimed(int from);
+
+    /**
+     * Levels from 1 up to and including the given level that have not been claimed, ascending
+     */
+    int[] unclaimedUpTo(int level);
+
+    int count();
+
+    /**
+     * The highest claimed level, or -1 if nothing has been claimed
+     */
+    int highest();
+
+    /**
+     * A copy of the bitmap, bit n of word n / 64 set for each claimed level n. Each word is
+     * read once, so encoders sizing and writing from the copy can't see claims in between.
+     */
+    long[] words();
+}
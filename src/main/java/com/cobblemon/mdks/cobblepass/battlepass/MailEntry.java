@@ -0,0 +1,55 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.data.Reward;
+import net.minecraft.world.item.ItemStack;
+
+/**
+ * Something waiting in a player's {@link RewardMailbox}: either items that did not fit in
+ * their inventory, or a reward that could not be granted when it was earned
+ */
+public final class MailEntry {
+    private final ItemStack item;
+    private final Reward reward;
+    // The tier the reward came from
+    private final int tier;
+    private final boolean premium;
+
+    private MailEntry(ItemStack item, Reward reward, int tier, boolean premium) {
+        this.item = item;
+        this.reward = reward;
+        this.tier = tier;
+        this.premium = premium;
+    }
+
+    public static MailEntry item(ItemStack item) {
+        return new MailEntry(item, null, 0, false);
+    }
+
+    public static MailEntry reward(Reward reward, int tier, boolean premium) {
+        return new MailEntry(ItemStack.EMPTY, reward, tier, premium);
+    }
+
+    public boolean isItem() {
+        return reward == null;
+    }
+
+    public ItemStack getItem() {
+        return item;
+    }
+
+    public Reward getReward() {
+        return reward;
+    }
+
+    public int getTier() {
+        return tier;
+    }
+
+    public boolean isPremium() {
+        return premium;
+    }
+
+    public ItemStack createDisplayItem() {
+        return isItem() ? item.copy() : reward.createDisplayItem();
+    }
+}
@@ -0,0 +1,14 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+/**
+ * Notified of every change to a loaded pass. Changes can be made from several threads and
+ * notifications may arrive out of order, so progress and premium listeners read the
+ * current values from the pass instead of being handed them.
+ */
+public interface PassChangeListener {
+    void onProgress(PlayerBattlePass pass);
+
+    void onClaim(PlayerBattlePass pass, int level, boolean premium);
+
+    void onPremium(PlayerBattlePass pass);
+}
@@ -1,82 +1,172 @@
 package com.cobblemon.mdks.cobblepass.battlepass;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.config.XpCurve;
+import com.cobblemon.mdks.cobblepass.storage.PlayerRecordCodec;
 import com.cobblemon.mdks.cobblepass.util.Constants;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Progress of one player. XP, claims and premium changes arrive from event callbacks,
+ * commands and GUI clicks on different threads, so the state is kept lock-free: level and
+ * XP are packed into a single long updated by compare-and-set, and claims are atomic bit
+ * operations that succeed for exactly one caller.
+ */
 public class PlayerBattlePass {
     private final UUID playerId;
-    private String version;
-    private int level;
-    private int xp;
-    private boolean isPremium;
-    private final Set<Integer> claimedFreeRewards;
-    private final Set<Integer> claimedPremiumRewards;
+    private volatile String version;
+    // The season this progress belongs to; records of any other season are stale
+    private volatile int season;
+    // Level in the high 32 bits, XP in the low 32 bits
+    private final AtomicLong progress;
+    private volatile boolean isPremium;
+    private final ClaimBitmap claimedFreeRewards;
+    private final ClaimBitmap claimedPremiumRewards;
+    // Set whenever persisted state changes; cleared when a snapshot is taken for saving
+    private volatile boolean dirty;
+    // Set once the pass is held in memory; passes being loaded or restored don't report changes
+    private volatile PassChangeListener listener;
 
     public PlayerBattlePass(UUID playerId) {
         this.playerId = playerId;
         this.version = Constants.PLAYER_DATA_VERSION;
-        this.level = 1;
-        this.xp = 0;
+        this.season = CobblePass.config.getCurrentSeason();
+        this.progress = new AtomicLong(pack(1, 0));
         this.isPremium = false;
-        this.claimedFreeRewards = new HashSet<>();
-        this.claimedPremiumRewards = new HashSet<>();
+        this.claimedFreeRewards = new ClaimBitmap();
+        this.claimedPremiumRewards = new ClaimBitmap();
     }
 
     public void addXP(int amount) {
-        this.xp += amount;
-        checkLevelUp();
+        XpCurve curve = CobblePass.config.getXpCurve();
+        long current;
+        long updated;
+        do {
+            current = progress.get();
+            updated = advance(current, amount, curve);
+        } while (!progress.compareAndSet(current, updated));
+        dirty = true;
+        notifyProgress();
     }
 
-    private void checkLevelUp() {
-        while (xp >= getXPForNextLevel()) {
-            if (level >= CobblePass.config.getMaxLevel()) {
-                xp = getXPForNextLevel();
-                return;
-            }
-            xp -= getXPForNextLevel();
-            level++;
+    /**
+     * The packed progress after adding XP and levelling up as far as it reaches
+     */
+    private static long advance(long packed, int amount, XpCurve curve) {
+        int level = levelOf(packed);
+        long xp = (long) xpOf(packed) + amount;
+        if (xp < curve.xpToNext(level)) {
+            return pack(level, (int) Math.max(0, xp));
         }
+        if (level >= curve.getMaxLevel()) {
+            return pack(level, curve.xpToNext(level));
+        }
+
+        long total = curve.totalXpFor(level) + xp;
+        int reached = Math.min(curve.levelForTotalXp(total), curve.getMaxLevel());
+        return pack(reached, (int) Math.min(total - curve.totalXpFor(reached), curve.xpToNext(reached)));
     }
 
-    private int getXPForNextLevel() {
-        if (CobblePass.config.getXpProgression().getMode().equalsIgnoreCase("MANUAL")) {
-            return CobblePass.config.getXpProgression().getManualXpForLevel(level + 1);
-        } else {
-            return (int)(CobblePass.config.getXpProgression().getXpPerLevel() * Math.pow(CobblePass.config.getXpProgression().getXpMultiplier(), level - 1));
-        }
+    /**
+     * Set level and XP directly, e.g. when replaying journaled progress
+     */
+    public void setProgress(int level, int xp) {
+        progress.set(pack(level, xp));
+        dirty = true;
     }
 
-    public void claimFreeReward(int level) {
-        claimedFreeRewards.add(level);
+    /**
+     * Mark a free reward as claimed
+     * @return true for the one caller that claimed it, false if it was already claimed
+     */
+    public boolean claimFreeReward(int level) {
+        if (!claimedFreeRewards.set(level)) {
+            return false;
+        }
+        dirty = true;
+        PassChangeListener listener = this.listener;
+        if (listener != null) {
+            listener.onClaim(this, level, false);
+        }
+        return true;
     }
 
-    public void claimPremiumReward(int level) {
-        claimedPremiumRewards.add(level);
+    /**
+     * Mark a premium reward as claimed
+     * @return true for the one caller that claimed it, false if it was already claimed
+     */
+    public boolean claimPremiumReward(int level) {
+        if (!claimedPremiumRewards.set(level)) {
+            return false;
+        }
+        dirty = true;
+        PassChangeListener listener = this.listener;
+        if (listener != null) {
+            listener.onClaim(this, level, true);
+        }
+        return true;
     }
 
     public void setPremium(boolean premium) {
         this.isPremium = premium;
+        dirty = true;
+        PassChangeListener listener = this.listener;
+        if (listener != null) {
+            listener.onPremium(this);
+        }
+    }
+
+    private void notifyProgress() {
+        PassChangeListener listener = this.listener;
+        if (listener != null) {
+            listener.onProgress(this);
+        }
+    }
+
+    public void setListener(PassChangeListener listener) {
+        this.listener = listener;
     }
 
     public boolean hasClaimedFreeReward(int level) {
-        return claimedFreeRewards.contains(level);
+        return claimedFreeRewards.hasClaimed(level);
     }
 
     public boolean hasClaimedPremiumReward(int level) {
-        return claimedPremiumRewards.contains(level);
+        return claimedPremiumRewards.hasClaimed(level);
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Serializes the pass and clears the dirty flag before reading any state, so a change
+     * made while the snapshot is being written marks the pass dirty again.
+     */
+    public JsonObject snapshot() {
+        dirty = false;
+        return toJson();
     }
 
     public JsonObject toJson() {
+        long packed = progress.get();
         JsonObject json = new JsonObject();
         json.addProperty("version", version);
-        json.addProperty("level", level);
-        json.addProperty("xp", xp);
+        json.addProperty("season", season);
+        json.addProperty("level", levelOf(packed));
+        json.addProperty("xp", xpOf(packed));
         json.addProperty("isPremium", isPremium);
 
         JsonArray freeRewards = new JsonArray();
@@ -90,34 +180,167 @@ public class PlayerBattlePass {
         return json;
     }
 
+    /**
+     * Replace the state with a stored record; only called before the pass is shared
+     */
     public void fromJson(JsonObject json) {
         if (json.has("version")) version = json.get("version").getAsString();
-        if (json.has("level")) level = json.get("level").getAsInt();
-        if (json.has("xp")) xp = json.get("xp").getAsInt();
+        // Records saved before seasons were tagged belong to the season that was current then
+        season = json.has("season") ? json.get("season").getAsInt() : CobblePass.config.getLegacySeason();
+        int level = json.has("level") ? json.get("level").getAsInt() : getLevel();
+        int xp = json.has("xp") ? json.get("xp").getAsInt() : getXP();
+        progress.set(pack(level, xp));
         if (json.has("isPremium")) isPremium = json.get("isPremium").getAsBoolean();
 
         claimedFreeRewards.clear();
         if (json.has("claimedFreeRewards")) {
             json.get("claimedFreeRewards").getAsJsonArray()
-                    .forEach(e -> claimedFreeRewards.add(e.getAsInt()));
+                    .forEach(e -> claimedFreeRewards.set(e.getAsInt()));
         }
 
         claimedPremiumRewards.clear();
         if (json.has("claimedPremiumRewards")) {
             json.get("claimedPremiumRewards").getAsJsonArray()
-                    .forEach(e -> claimedPremiumRewards.add(e.getAsInt()));
+                    .forEach(e -> claimedPremiumRewards.set(e.getAsInt()));
         }
     }
 
+    /**
+     * Streaming counterpart of {@link #snapshot()}, writing the same document as {@link #toJson()}
+     */
+    public void snapshot(JsonWriter writer) throws IOException {
+        dirty = false;
+        writeJson(writer);
+    }
+
+    public void writeJson(JsonWriter writer) throws IOException {
+        long packed = progress.get();
+        writer.beginObject();
+        writer.name("version").value(version);
+        writer.name("season").value(season);
+        writer.name("level").value(levelOf(packed));
+        writer.name("xp").value(xpOf(packed));
+        writer.name("isPremium").value(isPremium);
+        writer.name("claimedFreeRewards");
+        writeLevels(writer, claimedFreeRewards);
+        writer.name("claimedPremiumRewards");
+        writeLevels(writer, claimedPremiumRewards);
+        writer.endObject();
+    }
+
+    private static void writeLevels(JsonWriter writer, ClaimBitmap levels) throws IOException {
+        writer.beginArray();
+        for (int level = levels.nextClaimed(0); level >= 0; level = levels.nextClaimed(level + 1)) {
+            writer.value(level);
+        }
+        writer.endArray();
+    }
+
+    /**
+     * Streaming counterpart of {@link #fromJson(JsonObject)}; unknown keys are skipped
+     */
+    public void readJson(JsonReader reader) throws IOException {
+        season = CobblePass.config.getLegacySeason();
+        int level = getLevel();
+        int xp = getXP();
+        claimedFreeRewards.clear();
+        claimedPremiumRewards.clear();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "version" -> version = reader.nextString();
+                case "season" -> season = reader.nextInt();
+                case "level" -> level = reader.nextInt();
+                case "xp" -> xp = reader.nextInt();
+                case "isPremium" -> isPremium = reader.nextBoolean();
+                case "claimedFreeRewards" -> readLevels(reader, claimedFreeRewards);
+                case "claimedPremiumRewards" -> readLevels(reader, claimedPremiumRewards);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        progress.set(pack(level, xp));
+    }
+
+    private static void readLevels(JsonReader reader, ClaimBitmap levels) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            levels.set(reader.nextInt());
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Binary counterpart of {@link #snapshot()}, see {@link PlayerRecordCodec}
+     */
+    public byte[] snapshotBinary() {
+        dirty = false;
+        long packed = progress.get();
+        return PlayerRecordCodec.encode(season, levelOf(packed), xpOf(packed), isPremium, claimedFreeRewards, claimedPremiumRewards);
+    }
+
+    public void fromBinary(byte[] data) {
+        claimedFreeRewards.clear();
+        claimedPremiumRewards.clear();
+        season = CobblePass.config.getLegacySeason();
+        PlayerRecordCodec.decode(data, new PlayerRecordCodec.Sink() {
+            @Override
+            public void season(int season) {
+                PlayerBattlePass.this.season = season;
+            }
+
+            @Override
+            public void progress(int level, int xp, boolean premium) {
+                PlayerBattlePass.this.progress.set(pack(level, xp));
+                PlayerBattlePass.this.isPremium = premium;
+            }
+
+            @Override
+            public void claimed(int level, boolean premium) {
+                (premium ? claimedPremiumRewards : claimedFreeRewards).set(level);
+            }
+        });
+    }
+
     // Getters
     public UUID getPlayerId() { return playerId; }
     public String getVersion() { return version; }
-    public int getLevel() { return level; }
-    public int getXP() { return xp; }
+    public int getSeason() { return season; }
+    public int getLevel() { return levelOf(progress.get()); }
+    public int getXP() { return xpOf(progress.get()); }
+    /** Level and XP read together, see {@link #levelOf(long)} and {@link #xpOf(long)} */
+    public long getProgress() { return progress.get(); }
     public boolean isPremium() {
         return isPremium;
     }
     public boolean hasPremium() { return isPremium; }
-    public Set<Integer> getClaimedFreeRewards() { return new HashSet<>(claimedFreeRewards); }
-    public Set<Integer> getClaimedPremiumRewards() { return new HashSet<>(claimedPremiumRewards); }
+    public ClaimView getClaimedFreeRewards() { return claimedFreeRewards; }
+    public ClaimView getClaimedPremiumRewards() { return claimedPremiumRewards; }
+
+    /**
+     * Levels reached so far whose free reward has not been claimed, ascending
+     */
+    public int[] getUnclaimedFreeLevels() {
+        return claimedFreeRewards.unclaimedUpTo(getLevel());
+    }
+
+    /**
+     * Levels reached so far whose premium reward has not been claimed, ascending
+     */
+    public int[] getUnclaimedPremiumLevels() {
+        return claimedPremiumRewards.unclaimedUpTo(getLevel());
+    }
+
+    public static int levelOf(long progress) {
+        return (int) (progress >>> 32);
+    }
+
+    public static int xpOf(long progress) {
+        return (int) progress;
+    }
+
+    private static long pack(int level, int xp) {
+        return (long) level << 32 | xp & 0xFFFFFFFFL;
+    }
 }
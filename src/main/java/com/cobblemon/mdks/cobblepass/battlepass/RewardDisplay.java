@@ -0,0 +1,100 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.data.Reward;
+import com.cobblemon.mdks.cobblepass.data.RewardPool;
+import com.google.gson.JsonObject;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.Unit;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.component.ItemLore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the stacks shown for tier rewards in the battle pass menu. They are built once
+ * per tier when the tiers are compiled; see {@link BattlePassTier#buildDisplayItems()}.
+ */
+final class RewardDisplay {
+    private static final int MAX_POOL_LORE_LINES = 12;
+
+    private RewardDisplay() {
+    }
+
+    static ItemStack build(Reward reward, boolean isPremium) {
+        ItemStack displayItem = reward != null ? reward.createDisplayItem() : ItemStack.EMPTY;
+        if (displayItem.isEmpty()) {
+            displayItem = new ItemStack(Items.BARRIER);
+        }
+        displayItem.set(DataComponents.CUSTOM_NAME, Component.literal(isPremium ? "§6Premium Reward" : "§aFree Reward"));
+        displayItem.set(DataComponents.LORE, new ItemLore(getRewardLore(reward)));
+        displayItem.set(DataComponents.HIDE_ADDITIONAL_TOOLTIP, Unit.INSTANCE);
+        return displayItem;
+    }
+
+    private static List<Component> getRewardLore(Reward reward) {
+        List<Component> lore = new ArrayList<>();
+        if (reward != null && !reward.isValid()) {
+            // Only compiled rewards are described, so a broken definition can't stop the menu being built
+            lore.add(Component.literal("§cThis reward is misconfigured"));
+        } else if (reward != null) {
+            JsonObject data = reward.getData();
+            switch (reward.getType()) {
+                case ITEM:
+                    ItemStack item = reward.getItemStack();
+                    String namespace = BuiltInRegistries.ITEM.getKey(item.getItem()).getNamespace();
+                    if (!namespace.equals("minecraft")) {
+                        lore.add(Component.literal("§8" + capitalize(namespace) + " Item"));
+                    }
+                    lore.add(Component.literal("§7" + item.getCount() + "x " + item.getHoverName().getString()));
+                    break;
+                case POKEMON:
+                    lore.add(Component.literal("§7Pokemon"));
+                    lore.add(Component.literal(reward.getSpecies().getTranslatedName().getString()));
+                    if (data != null) {
+                        if (data.has("level")) {
+                            lore.add(Component.literal("§7Level: §f" + data.get("level").getAsInt()));
+                        }
+                        if (data.has("shiny") && data.get("shiny").getAsBoolean()) {
+                            lore.add(Component.literal("§6✦ Shiny"));
+                        }
+                    }
+                    break;
+                case POOL:
+                    RewardPool pool = reward.getPool();
+                    lore.add(Component.literal("§7" + (pool.getRolls() == 1 ? "One random reward" : pool.getRolls() + " random rewards") + " from:"));
+                    List<Reward> entries = pool.getRewards();
+                    for (int i = 0; i < Math.min(entries.size(), MAX_POOL_LORE_LINES); i++) {
+                        lore.add(Component.literal(String.format("§8- §f%s §7(§e%.1f%%§7)", entries.get(i).describe(), pool.getChance(i) * 100)));
+                    }
+                    if (entries.size() > MAX_POOL_LORE_LINES) {
+                        lore.add(Component.literal("§8...and " + (entries.size() - MAX_POOL_LORE_LINES) + " more"));
+                    }
+                    break;
+                case COMMAND:
+                    if (data != null) {
+                        if (data.has("display_name")) {
+                            lore.add(Component.literal("§7" + data.get("display_name").getAsString()));
+                        } else if (data.has("id")) {
+                            String itemId = data.get("id").getAsString();
+                            String itemName = itemId.substring(itemId.indexOf(':') + 1).replace("_", " ");
+                            lore.add(Component.literal("§7" + Arrays.stream(itemName.split(" "))
+                                    .map(RewardDisplay::capitalize)
+                                    .collect(Collectors.joining(" "))));
+                        }
+                    }
+                    break;
+            }
+        }
+        return lore;
+    }
+
+    private static String capitalize(String word) {
+        return word.isEmpty() ? word : word.substring(0, 1).toUpperCase() + word.substring(1);
+    }
+}
@@ -0,0 +1,282 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.data.Reward;
+import com.cobblemon.mdks.cobblepass.storage.SaveQueue;
+import com.cobblemon.mdks.cobblepass.util.Constants;
+import com.google.gson.JsonParser;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.ItemStack;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds rewards a player could not receive directly: items that did not fit in their
+ * inventory, rewards granted while they were offline and grants that failed. Each
+ * non-empty mailbox is one compressed NBT file in the mailbox directory.
+ * <p>
+ * Which players have mail is known from the file names, read once at startup, so players
+ * with an empty mailbox never cause any I/O. A mailbox is only read when it is opened or
+ * delivered to, on the I/O thread, and is changed on the server thread only.
+ */
+public class RewardMailbox {
+    private final Path directory = Path.of(Constants.MAILBOX_DIR);
+    private final SaveQueue io;
+    private final Set<UUID> withMail = ConcurrentHashMap.newKeySet();
+    // Mailboxes read so far; server thread only
+    private final Map<UUID, List<MailEntry>> loaded = new HashMap<>();
+    private final Map<UUID, CompletableFuture<List<MailEntry>>> loading = new HashMap<>();
+    // Entries for mailboxes that could not be read, added once a read succeeds
+    private final Map<UUID, List<MailEntry>> held = new HashMap<>();
+
+    public RewardMailbox(SaveQueue io) {
+        this.io = io;
+    }
+
+    /**
+     * Find the players who have mail; called before players can join
+     */
+    public void start() {
+        withMail.clear();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.dat")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    withMail.add(UUID.fromString(name.substring(0, name.length() - 4)));
+                } catch (IllegalArgumentException ignored) {
+                    // Not a mailbox
+                }
+            }
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to list reward mailboxes", e);
+        }
+    }
+
+    public boolean hasMail(UUID playerId) {
+        return withMail.contains(playerId);
+    }
+
+    /**
+     * The player's mailbox, read on the I/O thread the first time; completes on the server
+     * thread. Fails if the file can't be read, and the next call reads it again.
+     */
+    public CompletableFuture<List<MailEntry>> get(UUID playerId) {
+        List<MailEntry> entries = loaded.get(playerId);
+        if (entries != null) {
+            return CompletableFuture.completedFuture(entries);
+        }
+        if (!withMail.contains(playerId)) {
+            entries = new ArrayList<>();
+            loaded.put(playerId, entries);
+            return CompletableFuture.completedFuture(entries);
+        }
+        return loading.computeIfAbsent(playerId, id -> io.submit(() -> read(id))
+                .handleAsync((tag, error) -> {
+                    loading.remove(id);
+                    if (error != null) {
+                        throw new CompletionException(error);
+                    }
+                    List<MailEntry> mailbox = loaded.computeIfAbsent(id, key -> decode(key, tag));
+                    List<MailEntry> waiting = held.remove(id);
+                    if (waiting != null) {
+                        mailbox.addAll(waiting);
+                        save(id, mailbox);
+                    }
+                    return mailbox;
+                }, CobblePass.server));
+    }
+
+    /**
+     * Add entries to a player's mailbox, whether they are online or not
+     */
+    public void deliver(UUID playerId, List<MailEntry> entries) {
+        deliver(playerId, entries, Constants.MSG_MAILBOX_DELIVERED);
+    }
+
+    public void deliver(UUID playerId, MailEntry entry) {
+        deliver(playerId, List.of(entry));
+    }
+
+    /**
+     * Add entries to a player's mailbox and tell them with the given message if they are online
+     */
+    public void deliver(UUID playerId, List<MailEntry> entries, String message) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        get(playerId).whenComplete((mailbox, error) -> {
+            if (error != null) {
+                // Saving now would replace the unreadable file, so keep them until it can be read
+                held.computeIfAbsent(playerId, id -> new ArrayList<>()).addAll(entries);
+                CobblePass.LOGGER.error("Holding " + entries.size() + " rewards for " + playerId + " in memory until their mailbox can be read");
+                return;
+            }
+            mailbox.addAll(entries);
+            save(playerId, mailbox);
+            ServerPlayer player = CobblePass.server.getPlayerList().getPlayer(playerId);
+            if (player != null) {
+                player.sendSystemMessage(Component.literal(message));
+            } else {
+                // Nobody will open it before it is read again
+                unload(playerId);
+            }
+        });
+    }
+
+    /**
+     * Put items in the player's inventory and mail whatever does not fit
+     */
+    public void give(ServerPlayer player, ItemStack item) {
+        player.getInventory().add(item);
+        if (!item.isEmpty()) {
+            deliver(player.getUUID(), MailEntry.item(item));
+        }
+    }
+
+    /**
+     * Hand one entry to its owner. Items that still don't fit stay in the mailbox.
+     * @return false if nothing could be taken
+     */
+    public boolean take(ServerPlayer player, MailEntry entry) {
+        List<MailEntry> mailbox = loaded.get(player.getUUID());
+        if (mailbox == null || !mailbox.contains(entry)) {
+            return false;
+        }
+        if (entry.isItem()) {
+            ItemStack item = entry.getItem();
+            int before = item.getCount();
+            player.getInventory().add(item);
+            if (!item.isEmpty()) {
+                if (item.getCount() == before) {
+                    return false;
+                }
+                save(player.getUUID(), mailbox);
+                return true;
+            }
+            mailbox.remove(entry);
+        } else {
+            if (!entry.getReward().isValid()) {
+                return false;
+            }
+            // A grant that fails again mails the reward back
+            mailbox.remove(entry);
+            entry.getReward().grant(player, entry.getTier(), entry.isPremium());
+        }
+        save(player.getUUID(), mailbox);
+        return true;
+    }
+
+    /**
+     * Forget the in-memory copy of a mailbox, e.g. when its owner leaves
+     */
+    public void unload(UUID playerId) {
+        if (!loading.containsKey(playerId)) {
+            loaded.remove(playerId);
+        }
+    }
+
+    private void save(UUID playerId, List<MailEntry> mailbox) {
+        Path file = directory.resolve(playerId + ".dat");
+        if (mailbox.isEmpty()) {
+            withMail.remove(playerId);
+            io.submit(() -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    CobblePass.LOGGER.error("Failed to delete reward mailbox of " + playerId, e);
+                }
+                return null;
+            });
+            return;
+        }
+
+        withMail.add(playerId);
+        CompoundTag tag = encode(mailbox, CobblePass.server.registryAccess());
+        io.submit(() -> {
+            try {
+                Files.createDirectories(directory);
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                NbtIo.writeCompressed(tag, temp);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                CobblePass.LOGGER.error("Failed to save reward mailbox of " + playerId, e);
+            }
+            return null;
+        });
+    }
+
+    private CompoundTag read(UUID playerId) {
+        Path file = directory.resolve(playerId + ".dat");
+        try {
+            return Files.exists(file) ? NbtIo.readCompressed(file, NbtAccounter.unlimitedHeap()) : new CompoundTag();
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to read reward mailbox of " + playerId, e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CompoundTag encode(List<MailEntry> mailbox, RegistryAccess registryAccess) {
+        ListTag entries = new ListTag();
+        for (MailEntry entry : mailbox) {
+            CompoundTag tag = new CompoundTag();
+            if (entry.isItem()) {
+                tag.put("item", entry.getItem().save(registryAccess));
+            } else {
+                tag.putString("reward", entry.getReward().toJson().toString());
+                tag.putInt("tier", entry.getTier());
+                tag.putBoolean("premium", entry.isPremium());
+            }
+            entries.add(tag);
+        }
+        CompoundTag root = new CompoundTag();
+        root.put("entries", entries);
+        return root;
+    }
+
+    private static List<MailEntry> decode(UUID playerId, CompoundTag root) {
+        RegistryAccess registryAccess = CobblePass.server.registryAccess();
+        List<MailEntry> mailbox = new ArrayList<>();
+        for (Tag element : root.getList("entries", Tag.TAG_COMPOUND)) {
+            CompoundTag tag = (CompoundTag) element;
+            if (tag.contains("item")) {
+                ItemStack item = ItemStack.parse(registryAccess, tag.get("item")).orElse(ItemStack.EMPTY);
+                if (item.isEmpty()) {
+                    CobblePass.LOGGER.warn("Dropping unknown item from the reward mailbox of " + playerId + ": " + tag.get("item"));
+                    continue;
+                }
+                mailbox.add(MailEntry.item(item));
+            } else if (tag.contains("reward")) {
+                Reward reward = Reward.fromJson(JsonParser.parseString(tag.getString("reward")).getAsJsonObject());
+                if (!reward.compile(registryAccess)) {
+                    CobblePass.LOGGER.warn("Reward in the mailbox of " + playerId + " is invalid: " + reward.getError());
+                }
+                mailbox.add(MailEntry.reward(reward, tag.getInt("tier"), tag.getBoolean("premium")));
+            }
+        }
+        return mailbox;
+    }
+}
@@ -0,0 +1,75 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Predicate;
+
+/**
+ * Collects XP from event listeners so it can be applied to each pass once per tick, no
+ * matter how many events a player triggered. Every player has one counter per
+ * {@link XpSource}; recording only adds to a counter and never takes a lock.
+ */
+public class XpAccumulator {
+    private static final int SOURCES = XpSource.values().length;
+
+    // Entries stay while the player is online so a drain never races a new entry; late
+    // events for a player who already left are drained once and then dropped
+    private final Map<UUID, AtomicIntegerArray> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Receives the XP a player earned since the last drain, per source
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(UUID playerId, int[] xpBySource, int total);
+    }
+
+    public void record(UUID playerId, XpSource source, int amount) {
+        if (amount == 0) {
+            return;
+        }
+        pending.computeIfAbsent(playerId, id -> new AtomicIntegerArray(SOURCES))
+                .addAndGet(source.ordinal(), amount);
+    }
+
+    /**
+     * Hand every player's XP since the last drain to the sink and reset the counters.
+     * Entries of players the filter reports as offline are removed before they are drained.
+     */
+    public void drain(Sink sink, Predicate<UUID> offline) {
+        int[] xpBySource = new int[SOURCES];
+        for (Map.Entry<UUID, AtomicIntegerArray> entry : pending.entrySet()) {
+            if (offline.test(entry.getKey())) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+            drain(entry.getKey(), entry.getValue(), xpBySource, sink);
+        }
+    }
+
+    /**
+     * Drain a single player and forget them, e.g. when they disconnect
+     */
+    public void drain(UUID playerId, Sink sink) {
+        AtomicIntegerArray counters = pending.remove(playerId);
+        if (counters != null) {
+            drain(playerId, counters, new int[SOURCES], sink);
+        }
+    }
+
+    private static void drain(UUID playerId, AtomicIntegerArray counters, int[] xpBySource, Sink sink) {
+        int total = 0;
+        for (int i = 0; i < SOURCES; i++) {
+            xpBySource[i] = counters.getAndSet(i, 0);
+            total += xpBySource[i];
+        }
+        if (total != 0) {
+            sink.accept(playerId, xpBySource, total);
+        }
+    }
+
+    public void clear() {
+        pending.clear();
+    }
+}
@@ -0,0 +1,51 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.google.gson.JsonObject;
+
+import java.util.UUID;
+
+/**
+ * A timed XP multiplier, either for everyone or for one player
+ */
+public class XpBoost {
+    // Null for a global boost
+    private final UUID playerId;
+    private final double multiplier;
+    private final long expiresAt;
+    private boolean cancelled;
+
+    public XpBoost(UUID playerId, double multiplier, long expiresAt) {
+        this.playerId = playerId;
+        this.multiplier = multiplier;
+        this.expiresAt = expiresAt;
+    }
+
+    public UUID getPlayerId() { return playerId; }
+    public boolean isGlobal() { return playerId == null; }
+    public double getMultiplier() { return multiplier; }
+    public long getExpiresAt() { return expiresAt; }
+    public boolean isCancelled() { return cancelled; }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        if (playerId != null) {
+            json.addProperty("player", playerId.toString());
+        }
+        json.addProperty("multiplier", multiplier);
+        json.addProperty("expiresAt", expiresAt);
+        return json;
+    }
+
+    public static XpBoost fromJson(JsonObject json) {
+        UUID playerId = json.has("player") ? UUID.fromString(json.get("player").getAsString()) : null;
+        double multiplier = json.get("multiplier").getAsDouble();
+        if (!(multiplier > 0)) {
+            throw new IllegalArgumentException("Boost multiplier must be above 0: " + multiplier);
+        }
+        return new XpBoost(playerId, multiplier, json.get("expiresAt").getAsLong());
+    }
+}
@@ -0,0 +1,188 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.util.Constants;
+import com.cobblemon.mdks.cobblepass.util.TimingWheel;
+import com.cobblemon.mdks.cobblepass.util.Utils;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Global and per-player XP boosts. Expiry is tracked on a {@link TimingWheel} advanced from
+ * the server tick by wall-clock time, so lag doesn't stretch a boost and any number of
+ * boosts costs the same per tick. The combined multipliers are kept up to date as boosts
+ * start and end, which leaves a single map lookup for the XP award path. Boosts are stored
+ * in boosts.json with their expiry time and survive restarts.
+ * <p>
+ * Changes are made on the server thread; {@link #multiplierFor(UUID)} can be read anywhere.
+ */
+public class XpBoostManager {
+    private static final int WHEEL_SLOTS = 1024;
+    private static final long MILLIS_PER_TICK = 50;
+
+    private final TimingWheel<XpBoost> wheel = new TimingWheel<>(WHEEL_SLOTS);
+    private final List<XpBoost> globalBoosts = new ArrayList<>();
+    private final Map<UUID, List<XpBoost>> playerBoosts = new HashMap<>();
+    // Product of each player's active boosts; players without one are left out
+    private final Map<UUID, Double> playerMultipliers = new ConcurrentHashMap<>();
+    private volatile double globalMultiplier = 1.0;
+    // Runs the file write off the server thread
+    private final Consumer<Runnable> io;
+    private long startMillis = System.currentTimeMillis();
+    private boolean changed;
+
+    public XpBoostManager(Consumer<Runnable> io) {
+        this.io = io;
+    }
+
+    public void load() {
+        clear();
+        JsonObject json = Utils.readJsonFile(Constants.CONFIG_PATH, Constants.BOOSTS_FILE);
+        if (json == null || !json.has("boosts")) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int loaded = 0;
+        for (JsonElement element : json.getAsJsonArray("boosts")) {
+            try {
+                XpBoost boost = XpBoost.fromJson(element.getAsJsonObject());
+                if (boost.getExpiresAt() > now) {
+                    start(boost);
+                    loaded++;
+                }
+            } catch (RuntimeException e) {
+                CobblePass.LOGGER.warn("Skipping invalid XP boost " + element);
+            }
+        }
+        changed = false;
+        if (loaded > 0) {
+            CobblePass.LOGGER.info("Restored " + loaded + " active XP boosts");
+        }
+    }
+
+    /**
+     * Start a boost for one player, or for everyone when the player is null
+     */
+    public XpBoost add(UUID playerId, double multiplier, long durationMillis) {
+        XpBoost boost = new XpBoost(playerId, multiplier, System.currentTimeMillis() + durationMillis);
+        start(boost);
+        return boost;
+    }
+
+    /**
+     * End every boost of a player, or every global boost when the player is null
+     * @return The number of boosts ended
+     */
+    public int clear(UUID playerId) {
+        List<XpBoost> boosts = playerId == null ? globalBoosts : playerBoosts.remove(playerId);
+        if (boosts == null || boosts.isEmpty()) {
+            return 0;
+        }
+        int count = boosts.size();
+        // Left on the wheel and dropped when they come due
+        boosts.forEach(XpBoost::cancel);
+        boosts.clear();
+        recalculate(playerId);
+        return count;
+    }
+
+    /**
+     * Expire boosts that have run out; called every server tick
+     */
+    public void tick() {
+        wheel.advanceTo((System.currentTimeMillis() - startMillis) / MILLIS_PER_TICK, this::expire);
+        if (changed) {
+            changed = false;
+            save();
+        }
+    }
+
+    public double multiplierFor(UUID playerId) {
+        Double personal = playerMultipliers.get(playerId);
+        return personal == null ? globalMultiplier : globalMultiplier * personal;
+    }
+
+    public List<XpBoost> getGlobalBoosts() {
+        return List.copyOf(globalBoosts);
+    }
+
+    public Map<UUID, List<XpBoost>> getPlayerBoosts() {
+        Map<UUID, List<XpBoost>> copy = new HashMap<>();
+        playerBoosts.forEach((playerId, boosts) -> copy.put(playerId, List.copyOf(boosts)));
+        return copy;
+    }
+
+    private void start(XpBoost boost) {
+        if (boost.isGlobal()) {
+            globalBoosts.add(boost);
+        } else {
+            playerBoosts.computeIfAbsent(boost.getPlayerId(), id -> new ArrayList<>()).add(boost);
+        }
+        long remaining = boost.getExpiresAt() - startMillis;
+        wheel.schedule(boost, (remaining + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK);
+        recalculate(boost.getPlayerId());
+    }
+
+    private void expire(XpBoost boost) {
+        if (boost.isCancelled()) {
+            return;
+        }
+        List<XpBoost> boosts = boost.isGlobal() ? globalBoosts : playerBoosts.get(boost.getPlayerId());
+        if (boosts != null && boosts.remove(boost)) {
+            if (boosts.isEmpty() && !boost.isGlobal()) {
+                playerBoosts.remove(boost.getPlayerId());
+            }
+            recalculate(boost.getPlayerId());
+        }
+    }
+
+    private void recalculate(UUID playerId) {
+        changed = true;
+        if (playerId == null) {
+            globalMultiplier = product(globalBoosts);
+            return;
+        }
+        List<XpBoost> boosts = playerBoosts.get(playerId);
+        if (boosts == null || boosts.isEmpty()) {
+            playerMultipliers.remove(playerId);
+        } else {
+            playerMultipliers.put(playerId, product(boosts));
+        }
+    }
+
+    private static double product(List<XpBoost> boosts) {
+        double multiplier = 1.0;
+        for (XpBoost boost : boosts) {
+            multiplier *= boost.getMultiplier();
+        }
+        return multiplier;
+    }
+
+    private void save() {
+        JsonArray boosts = new JsonArray();
+        globalBoosts.forEach(boost -> boosts.add(boost.toJson()));
+        playerBoosts.values().forEach(list -> list.forEach(boost -> boosts.add(boost.toJson())));
+        JsonObject json = new JsonObject();
+        json.add("boosts", boosts);
+        io.accept(() -> Utils.writeJsonAtomic(Constants.CONFIG_PATH, Constants.BOOSTS_FILE, true,
+                writer -> Utils.PRETTY_GSON.toJson(json, writer)));
+    }
+
+    private void clear() {
+        wheel.clear();
+        globalBoosts.clear();
+        playerBoosts.clear();
+        playerMultipliers.clear();
+        globalMultiplier = 1.0;
+        startMillis = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,99 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.util.Constants;
+import com.cobblemon.mdks.cobblepass.util.MessageTemplate;
+import net.minecraft.network.protocol.game.ClientboundSetSubtitleTextPacket;
+import net.minecraft.network.protocol.game.ClientboundSetTitleTextPacket;
+import net.minecraft.network.protocol.game.ClientboundSetTitlesAnimationPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.sounds.SoundSource;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Tells players about the XP they earn without flooding them. Gains are added up per
+ * player for a short window and shown as one action bar message; if the player levelled
+ * up during the window they also get one title and sound for the whole batch.
+ * <p>
+ * Only used from the server thread.
+ */
+public class XpNotifier {
+    private static final MessageTemplate XP_GAINED = MessageTemplate.compile(Constants.MSG_XP_GAINED, "xp", "current", "needed");
+    private static final MessageTemplate XP_LEVELED = MessageTemplate.compile(Constants.MSG_XP_LEVELED, "xp", "from", "to");
+    private static final MessageTemplate LEVEL_UP_TITLE = MessageTemplate.compile(Constants.MSG_LEVEL_UP, "level");
+    private static final MessageTemplate LEVEL_UP_SUBTITLE = MessageTemplate.compile(Constants.MSG_LEVEL_UP_SUBTITLE, "level");
+
+    private final Map<UUID, Batch> batches = new HashMap<>();
+    private long tick;
+
+    private static final class Batch {
+        final long startTick;
+        final int fromLevel;
+        long xp;
+        int toLevel;
+
+        Batch(long startTick, int fromLevel) {
+            this.startTick = startTick;
+            this.fromLevel = fromLevel;
+        }
+    }
+
+    /**
+     * Add XP a player just received to their current batch
+     */
+    public void record(UUID playerId, int xp, int levelBefore, int levelAfter) {
+        Batch batch = batches.computeIfAbsent(playerId, id -> new Batch(tick, levelBefore));
+        batch.xp += xp;
+        batch.toLevel = levelAfter;
+    }
+
+    /**
+     * Send every batch whose window has passed; called once per server tick
+     */
+    public void tick(int windowTicks) {
+        tick++;
+        if (batches.isEmpty()) {
+            return;
+        }
+        Iterator<Map.Entry<UUID, Batch>> entries = batches.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<UUID, Batch> entry = entries.next();
+            Batch batch = entry.getValue();
+            if (tick - batch.startTick < windowTicks) {
+                continue;
+            }
+            entries.remove();
+            ServerPlayer player = CobblePass.server.getPlayerList().getPlayer(entry.getKey());
+            if (player != null) {
+                send(player, batch);
+            }
+        }
+    }
+
+    public void forget(UUID playerId) {
+        batches.remove(playerId);
+    }
+
+    private void send(ServerPlayer player, Batch batch) {
+        if (batch.toLevel <= batch.fromLevel) {
+            PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(player);
+            if (pass != null) {
+                long progress = pass.getProgress();
+                player.displayClientMessage(XP_GAINED.render(batch.xp, PlayerBattlePass.xpOf(progress),
+                        CobblePass.config.getXpCurve().xpToNext(PlayerBattlePass.levelOf(progress))), true);
+            }
+            return;
+        }
+
+        player.displayClientMessage(XP_LEVELED.render(batch.xp, batch.fromLevel, batch.toLevel), true);
+        player.connection.send(new ClientboundSetTitlesAnimationPacket(10, 40, 10));
+        player.connection.send(new ClientboundSetSubtitleTextPacket(LEVEL_UP_SUBTITLE.render(batch.toLevel)));
+        player.connection.send(new ClientboundSetTitleTextPacket(LEVEL_UP_TITLE.render(batch.toLevel)));
+        player.playNotifySound(SoundEvents.PLAYER_LEVELUP, SoundSource.PLAYERS, 1.0f, 1.0f);
+    }
+}
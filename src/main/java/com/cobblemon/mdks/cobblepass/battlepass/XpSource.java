@@ -0,0 +1,13 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+/**
+ * Activities that earn battle pass XP
+ */
+public enum XpSource {
+    CATCH,
+    DEFEAT,
+    EVOLVE,
+    HATCH,
+    TRADE,
+    BATTLE_WIN
+}
@@ -4,26 +4,28 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
 import com.cobblemon.mdks.cobblepass.battlepass.BattlePassTier;
 import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
 import com.cobblemon.mdks.cobblepass.command.subcommand.AddLevelsCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.AddXPCommand;
+import com.cobblemon.mdks.cobblepass.command.subcommand.BoostCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.ClaimCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.CreateCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.DeleteCommand;
+import com.cobblemon.mdks.cobblepass.command.subcommand.GiveRewardCommand;
+import com.cobblemon.mdks.cobblepass.command.subcommand.MailboxCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.ManagePremiumCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.PremiumCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.ReloadCommand;
+import com.cobblemon.mdks.cobblepass.command.subcommand.RewardErrorsCommand;
 import com.cobblemon.mdks.cobblepass.command.subcommand.SeasonCommand;
-import com.cobblemon.mdks.cobblepass.data.Reward;
+import com.cobblemon.mdks.cobblepass.command.subcommand.TopCommand;
 import com.cobblemon.mdks.cobblepass.util.BaseCommand;
 import com.cobblemon.mdks.cobblepass.util.Constants;
 import com.cobblemon.mdks.cobblepass.util.Permissions;
 import com.cobblemon.mod.common.api.pokeball.PokeBalls;
-import com.google.gson.JsonObject;
 import com.mojang.brigadier.context.CommandContext;
 
 import ca.landonjw.gooeylibs2.api.UIManager;
@@ -57,7 +59,12 @@ public class BattlePassCommand extends BaseCommand {
                         new AddXPCommand(),
                         new ManagePremiumCommand(),
                         new SeasonCommand(),
-                        new DeleteCommand()
+                        new DeleteCommand(),
+                        new TopCommand(),
+                        new BoostCommand(),
+                        new MailboxCommand(),
+                        new GiveRewardCommand(),
+                        new RewardErrorsCommand()
                 )
         );
     }
@@ -98,79 +105,12 @@ public class BattlePassCommand extends BaseCommand {
         return String.format("%d days, %d hours, %d minutes", days, hours, minutes);
     }
 
-    private static List<Component> getRewardLore(BattlePassTier tier, boolean isPremium) {
-        List<Component> lore = new ArrayList<>();
-        Reward reward = isPremium ? tier.getPremiumReward() : tier.getFreeReward();
-        if (reward != null) {
-            JsonObject data = reward.getData();
-            switch (reward.getType()) {
-                case ITEM:
-                    if (data != null) {
-                        String itemId = data.get("id").getAsString();
-                        int count = data.has("Count") ? data.get("Count").getAsInt() : 1;
-                        String[] parts = itemId.split(":");
-                        String itemName = parts[parts.length - 1].replace("_", " ");
-                        itemName = Arrays.stream(itemName.split(" "))
-                                .map(word -> word.substring(0, 1).toUpperCase() + word.substring(1))
-                                .collect(Collectors.joining(" "));
-                        if (!parts[0].equals("minecraft")) {
-                            String modName = parts[0].substring(0, 1).toUpperCase() + parts[0].substring(1);
-                            lore.add(Component.literal("§8" + modName + " Item"));
-                        }
-                        lore.add(Component.literal("§7" + count + "x " + itemName));
-                    } else {
-                        lore.add(Component.literal("§7Item"));
-                    }
-                    break;
-                case POKEMON:
-                    lore.add(Component.literal("§7Pokemon"));
-                    if (data != null) {
-                        if (data.has("species")) {
-                            String speciesName = data.get("species").getAsString();
-                            speciesName = speciesName.substring(0, 1).toUpperCase() + speciesName.substring(1);
-                            lore.add(Component.literal(speciesName));
-                        }
-                        if (data.has("level")) {
-                            lore.add(Component.literal("§7Level: §f" + data.get("level").getAsInt()));
-                        }
-                        if (data.has("shiny") && data.get("shiny").getAsBoolean()) {
-                            lore.add(Component.literal("§6✦ Shiny"));
-                        }
-                    }
-                    break;
-                case COMMAND:
-                    if (data != null) {
-                        if (data.has("display_name")) {
-                            lore.add(Component.literal("§7" + data.get("display_name").getAsString()));
-                        } else if (data.has("id")) {
-                            String itemId = data.get("id").getAsString();
-                            String[] parts = itemId.split(":");
-                            String itemName = parts[parts.length - 1].replace("_", " ");
-                            itemName = Arrays.stream(itemName.split(" "))
-                                    .map(word -> word.substring(0, 1).toUpperCase() + word.substring(1))
-                                    .collect(Collectors.joining(" "));
-                            lore.add(Component.literal("§7" + itemName));
-                        }
-                    }
-                    break;
-            }
-        }
-        return lore;
-    }
-
     private static Button createRewardButton(ServerPlayer player, PlayerBattlePass pass, BattlePassTier tier, int level, boolean isPremium, int pageNum) {
-        Reward reward = isPremium ? tier.getPremiumReward() : tier.getFreeReward();
-        ItemStack displayItem = isPremium ? tier.getPremiumRewardItem(player.level().registryAccess()) : tier.getFreeRewardItem(player.level().registryAccess());
-
-        if (displayItem == null || displayItem.isEmpty()) {
-            displayItem = new ItemStack(Items.BARRIER);
-        }
+        // Built once per tier when the tiers are compiled
+        ItemStack displayItem = isPremium ? tier.getPremiumRewardItem() : tier.getFreeRewardItem();
 
         return GooeyButton.builder()
                 .display(displayItem)
-                .with(DataComponents.CUSTOM_NAME, Component.literal(isPremium ? "§6Premium Reward" : "§aFree Reward"))
-                .with(DataComponents.LORE, new ItemLore(getRewardLore(tier, isPremium)))
-                .with(DataComponents.HIDE_ADDITIONAL_TOOLTIP, Unit.INSTANCE)
                 .onClick(action -> {
                     if (level > pass.getLevel()) {
                         player.sendSystemMessage(Component.literal(String.format(Constants.MSG_LEVEL_NOT_REACHED, level)));
@@ -242,12 +182,43 @@ public class BattlePassCommand extends BaseCommand {
                 .build();
     }
 
+    private static Button createClaimAllButton(ServerPlayer player, int pageNum) {
+        return GooeyButton.builder()
+                .display(new ItemStack(Items.CHEST))
+                .with(DataComponents.CUSTOM_NAME, Component.literal("§aClaim All Rewards"))
+                .with(DataComponents.LORE, new ItemLore(List.of(Component.literal("§7Claim every reward you have reached at once"))))
+                .with(DataComponents.HIDE_ADDITIONAL_TOOLTIP, Unit.INSTANCE)
+                .onClick(action -> {
+                    // Refresh once for the whole batch
+                    if (CobblePass.battlePass.claimAll(player) > 0) {
+                        showBattlePassInfo(player, pageNum);
+                    }
+                })
+                .build();
+    }
+
+    private static Button createMailboxButton(ServerPlayer player) {
+        boolean hasMail = CobblePass.battlePass.getMailbox().hasMail(player.getUUID());
+        return GooeyButton.builder()
+                .display(new ItemStack(hasMail ? Items.ENDER_CHEST : Items.BARREL))
+                .with(DataComponents.CUSTOM_NAME, Component.literal("§bReward Mailbox"))
+                .with(DataComponents.LORE, new ItemLore(List.of(Component.literal(
+                        hasMail ? "§aYou have rewards waiting!" : "§7Rewards that didn't fit end up here"))))
+                .with(DataComponents.HIDE_ADDITIONAL_TOOLTIP, Unit.INSTANCE)
+                .onClick(action -> MailboxCommand.open(player))
+                .build();
+    }
+
     public static void showBattlePassInfo(ServerPlayer player) {
         showBattlePassInfo(player, 0);
     }
 
     public static void showBattlePassInfo(ServerPlayer player, int pageToShow) {
         PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(player);
+        if (pass == null) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_PASS_LOADING));
+            return;
+        }
 
         Button background = GooeyButton.builder()
                 .display(new ItemStack(Items.LIGHT_GRAY_STAINED_GLASS_PANE))
@@ -282,12 +253,7 @@ public class BattlePassCommand extends BaseCommand {
                 .build();
 
         int currentXP = pass.getXP();
-        int xpForNext;
-        if (CobblePass.config.getXpProgression().getMode().equalsIgnoreCase("MANUAL")) {
-            xpForNext = CobblePass.config.getXpProgression().getManualXpForLevel(pass.getLevel() + 1);
-        } else {
-            xpForNext = (int)(CobblePass.config.getXpProgression().getXpPerLevel() * Math.pow(CobblePass.config.getXpProgression().getXpMultiplier(), pass.getLevel() - 1));
-        }
+        int xpForNext = CobblePass.config.getXpCurve().xpToNext(pass.getLevel());
         List<Component> infoLore = new ArrayList<>(Arrays.asList(
                 Component.literal(String.format("§3Level: §f%d", pass.getLevel())),
                 Component.literal(String.format("§3XP: §f%d§7/§f%d", currentXP, xpForNext))
@@ -348,6 +314,8 @@ public class BattlePassCommand extends BaseCommand {
                     .set(0, 0, xpInfoButton)
                     .set(0, 4, infoButton)
                     .set(0, 8, premiumButton)
+                    .set(0, 6, createClaimAllButton(player, pageNum))
+                    .set(0, 2, createMailboxButton(player))
                     .set(2, 0, GooeyButton.builder().display(new ItemStack(PokeBalls.INSTANCE.getPREMIER_BALL().item())).with(DataComponents.CUSTOM_NAME, Component.literal("§aFree Rewards")).build())
                     .set(4, 0, GooeyButton.builder().display(new ItemStack(PokeBalls.INSTANCE.getMASTER_BALL().item())).with(DataComponents.CUSTOM_NAME, Component.literal("§6Premium Rewards")).build())
                     .build();
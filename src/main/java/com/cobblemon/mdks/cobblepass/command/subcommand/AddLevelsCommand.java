@@ -1,7 +1,8 @@
 package com.cobblemon.mdks.cobblepass.command.subcommand;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
-import com.cobblemon.mdks.cobblepass.config.XpProgression;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+import com.cobblemon.mdks.cobblepass.config.XpCurve;
 import com.cobblemon.mdks.cobblepass.util.Subcommand;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
@@ -46,11 +47,17 @@ public class AddLevelsCommand extends Subcommand {
             }
 
             int levelsToAdd = IntegerArgumentType.getInteger(context, "levels");
-            int currentLevel = CobblePass.battlePass.getPlayerPass(target).getLevel();
+            PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(target);
+            if (pass == null) {
+                context.getSource().sendSystemMessage(Component.literal("§cError: That player's battle pass is still loading"));
+                return 0;
+            }
+            int currentLevel = pass.getLevel();
             
             // Ensure we don't exceed max level
-            if (currentLevel + levelsToAdd > 100) {
-                levelsToAdd = 100 - currentLevel;
+            XpCurve curve = CobblePass.config.getXpCurve();
+            if (currentLevel + levelsToAdd > curve.getMaxLevel()) {
+                levelsToAdd = curve.getMaxLevel() - currentLevel;
                 if (levelsToAdd <= 0) {
                     context.getSource().sendSystemMessage(Component.literal("§cError: Player is already at max level"));
                     return 0;
@@ -58,19 +65,7 @@ public class AddLevelsCommand extends Subcommand {
             }
 
             // Calculate total XP needed for target level
-            int totalXpNeeded = 0;
-            XpProgression xpProgression = CobblePass.config.getXpProgression();
-            if (xpProgression.getMode().equalsIgnoreCase("FORMULA")) {
-                double baseXp = xpProgression.getXpPerLevel();
-                double multiplier = xpProgression.getXpMultiplier();
-                for (int i = 0; i < levelsToAdd; i++) {
-                    totalXpNeeded += (int)(baseXp * Math.pow(multiplier, currentLevel + i - 1));
-                }
-            } else { // MANUAL
-                for (int i = 0; i < levelsToAdd; i++) {
-                    totalXpNeeded += xpProgression.getManualXpForLevel(currentLevel + i + 1);
-                }
-            }
+            int totalXpNeeded = (int) Math.min(Integer.MAX_VALUE, curve.xpBetween(currentLevel, currentLevel + levelsToAdd));
 
             CobblePass.battlePass.addXP(target, totalXpNeeded);
 
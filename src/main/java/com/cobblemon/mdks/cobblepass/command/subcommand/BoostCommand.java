@@ -0,0 +1,126 @@
+package com.cobblemon.mdks.cobblepass.command.subcommand;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.XpBoost;
+import com.cobblemon.mdks.cobblepass.battlepass.XpBoostManager;
+import com.cobblemon.mdks.cobblepass.util.Constants;
+import com.cobblemon.mdks.cobblepass.util.Subcommand;
+import com.cobblemon.mdks.cobblepass.util.Utils;
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.GameProfileArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class BoostCommand extends Subcommand {
+
+    public BoostCommand() {
+        super("§9Usage:\n§3- /battlepass boost global <multiplier> <minutes>\n" +
+                "§3- /battlepass boost player <player> <multiplier> <minutes>\n" +
+                "§3- /battlepass boost clear [player]\n" +
+                "§3- /battlepass boost list");
+    }
+
+    @Override
+    public LiteralCommandNode<CommandSourceStack> build() {
+        return Commands.literal("boost")
+                .requires(source -> source.hasPermission(4)) // Requires operator permission level
+                .executes(this::showUsage)
+                .then(Commands.literal("global")
+                        .then(Commands.argument("multiplier", DoubleArgumentType.doubleArg(1))
+                                .then(Commands.argument("minutes", IntegerArgumentType.integer(1))
+                                        .executes(this::addGlobal))))
+                .then(Commands.literal("player")
+                        .then(Commands.argument("player", GameProfileArgument.gameProfile())
+                                .then(Commands.argument("multiplier", DoubleArgumentType.doubleArg(1))
+                                        .then(Commands.argument("minutes", IntegerArgumentType.integer(1))
+                                                .executes(this::addPlayer)))))
+                .then(Commands.literal("clear")
+                        .executes(context -> clear(context, false))
+                        .then(Commands.argument("player", GameProfileArgument.gameProfile())
+                                .executes(context -> clear(context, true))))
+                .then(Commands.literal("list")
+                        .executes(this::run))
+                .build();
+    }
+
+    private int addGlobal(CommandContext<CommandSourceStack> context) {
+        double multiplier = DoubleArgumentType.getDouble(context, "multiplier");
+        long duration = IntegerArgumentType.getInteger(context, "minutes") * Constants.MILLIS_PER_MINUTE;
+        CobblePass.battlePass.getBoosts().add(null, multiplier, duration);
+
+        Utils.broadcast(String.format(Constants.MSG_BOOST_GLOBAL, multiplier, Utils.formatDuration(duration)));
+        context.getSource().sendSuccess(() -> Component.literal(
+                String.format("§aStarted a global x%.2f XP boost for %s", multiplier, Utils.formatDuration(duration))), true);
+        return 1;
+    }
+
+    private int addPlayer(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        double multiplier = DoubleArgumentType.getDouble(context, "multiplier");
+        long duration = IntegerArgumentType.getInteger(context, "minutes") * Constants.MILLIS_PER_MINUTE;
+        for (GameProfile target : GameProfileArgument.getGameProfiles(context, "player")) {
+            CobblePass.battlePass.getBoosts().add(target.getId(), multiplier, duration);
+            context.getSource().sendSuccess(() -> Component.literal(
+                    String.format("§aStarted a x%.2f XP boost for %s for %s", multiplier, target.getName(), Utils.formatDuration(duration))), true);
+
+            ServerPlayer online = context.getSource().getServer().getPlayerList().getPlayer(target.getId());
+            if (online != null) {
+                online.sendSystemMessage(Component.literal(String.format(Constants.MSG_BOOST_PLAYER, multiplier, Utils.formatDuration(duration))));
+            }
+        }
+        return 1;
+    }
+
+    private int clear(CommandContext<CommandSourceStack> context, boolean player) throws CommandSyntaxException {
+        XpBoostManager boosts = CobblePass.battlePass.getBoosts();
+        if (!player) {
+            int cleared = boosts.clear(null);
+            context.getSource().sendSuccess(() -> Component.literal("§aEnded " + cleared + " global XP boosts"), true);
+            return 1;
+        }
+        for (GameProfile target : GameProfileArgument.getGameProfiles(context, "player")) {
+            int cleared = boosts.clear(target.getId());
+            context.getSource().sendSuccess(() -> Component.literal("§aEnded " + cleared + " XP boosts of " + target.getName()), true);
+        }
+        return 1;
+    }
+
+    @Override
+    public int run(CommandContext<CommandSourceStack> context) {
+        XpBoostManager boosts = CobblePass.battlePass.getBoosts();
+        List<XpBoost> global = boosts.getGlobalBoosts();
+        Map<UUID, List<XpBoost>> players = boosts.getPlayerBoosts();
+        if (global.isEmpty() && players.isEmpty()) {
+            context.getSource().sendSystemMessage(Component.literal("§7No XP boosts are active"));
+            return 1;
+        }
+
+        long now = System.currentTimeMillis();
+        StringBuilder message = new StringBuilder("§6Active XP boosts:");
+        for (XpBoost boost : global) {
+            message.append(String.format("\n§3- Global: §ex%.2f §7(%s left)",
+                    boost.getMultiplier(), Utils.formatDuration(boost.getExpiresAt() - now)));
+        }
+        players.forEach((playerId, list) -> {
+            String name = context.getSource().getServer().getProfileCache() != null
+                    ? context.getSource().getServer().getProfileCache().get(playerId).map(GameProfile::getName).orElse(playerId.toString())
+                    : playerId.toString();
+            for (XpBoost boost : list) {
+                message.append(String.format("\n§3- %s: §ex%.2f §7(%s left)",
+                        name, boost.getMultiplier(), Utils.formatDuration(boost.getExpiresAt() - now)));
+            }
+        });
+        context.getSource().sendSystemMessage(Component.literal(formatMessage(message.toString(), context.getSource().isPlayer())));
+        return 1;
+    }
+}
@@ -17,12 +17,14 @@ import net.minecraft.world.item.ItemStack;
 
 public class ClaimCommand extends Subcommand {
     public ClaimCommand() {
-        super("§9Usage: §3/battlepass claim <level> [premium]");
+        super("§9Usage: §3/battlepass claim <level> [premium] §9or §3/battlepass claim all");
     }
 
     @Override
     public CommandNode<CommandSourceStack> build() {
         return Commands.literal("claim")
+            .then(Commands.literal("all")
+                .executes(this::claimAll))
             .then(Commands.argument("level", IntegerArgumentType.integer(1))
                 .executes(context -> run(context, false))
                 .then(Commands.argument("premium", BoolArgumentType.bool())
@@ -30,6 +32,17 @@ public class ClaimCommand extends Subcommand {
             .build();
     }
 
+    private int claimAll(CommandContext<CommandSourceStack> context) {
+        if (!context.getSource().isPlayer()) {
+            context.getSource().sendSystemMessage(
+                Component.literal(Constants.ERROR_PREFIX + "This command must be run by a player!")
+            );
+            return 1;
+        }
+        CobblePass.battlePass.claimAll(context.getSource().getPlayer());
+        return 1;
+    }
+
     private int run(CommandContext<CommandSourceStack> context, boolean hasPremiumArg) {
         if (!context.getSource().isPlayer()) {
             context.getSource().sendSystemMessage(
@@ -45,6 +58,11 @@ public class ClaimCommand extends Subcommand {
         PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(player);
         BattlePassTier tier = CobblePass.battlePass.getTier(level);
 
+        if (pass == null) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_PASS_LOADING));
+            return 1;
+        }
+
         // Check if tier exists
         if (tier == null) {
             player.sendSystemMessage(Component.literal(Constants.ERROR_PREFIX + "Invalid level!"));
@@ -74,8 +92,12 @@ public class ClaimCommand extends Subcommand {
                 return 1;
             }
 
+            // Mark the claim first; only the caller that wins it gets the reward
+            if (!pass.claimPremiumReward(level)) {
+                player.sendSystemMessage(Component.literal(Constants.MSG_ALREADY_CLAIMED));
+                return 1;
+            }
             tier.grantPremiumReward(player);
-            pass.claimPremiumReward(level);
             player.sendSystemMessage(Component.literal(String.format(
                 Constants.MSG_REWARD_CLAIM,
                 level
@@ -100,8 +122,12 @@ public class ClaimCommand extends Subcommand {
             return 1;
         }
 
+        // Mark the claim first; only the caller that wins it gets the reward
+        if (!pass.claimFreeReward(level)) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_ALREADY_CLAIMED));
+            return 1;
+        }
         tier.grantFreeReward(player);
-        pass.claimFreeReward(level);
         player.sendSystemMessage(Component.literal(String.format(
             Constants.MSG_REWARD_CLAIM,
             level
@@ -98,9 +98,6 @@ public class CreateCommand extends Subcommand {
                 .display(new ItemStack(Items.GREEN_WOOL))
                 .with(DataComponents.CUSTOM_NAME, Component.literal("§aCreate Battle Pass"))
                 .onClick((action) -> {
-                    // Wipes all previous player progress to ensure a clean start for the new pass
-                    CobblePass.battlePass.resetAllPlayerData();
-
                     if (CobblePass.config == null) {
                         CobblePass.config = new com.cobblemon.mdks.cobblepass.config.Config();
                     }
@@ -108,6 +105,8 @@ public class CreateCommand extends Subcommand {
                         CobblePass.battlePass = new com.cobblemon.mdks.cobblepass.battlepass.BattlePass();
                     }
                     CobblePass.config.createNewSeason(duration, maxLevel, premium);
+                    // Starts everyone over in the new season; old records are cleaned up in the background
+                    CobblePass.battlePass.resetAllPlayerData();
                     CobblePass.battlePass.generateNewTiers(maxLevel);
                     player.closeContainer();
                     player.sendSystemMessage(Component.literal("§aBattle Pass created successfully!"));
@@ -35,7 +35,6 @@ public class DeleteCommand extends Subcommand {
     private int delete(CommandContext<CommandSourceStack> context) {
         File configFile = new File(Constants.CONFIG_DIR, Constants.CONFIG_FILE);
         File tiersFile = new File(Constants.CONFIG_DIR, Constants.TIERS_FILE);
-        File playersDir = new File(Constants.PLAYER_DATA_DIR);
 
         boolean success = true;
 
@@ -48,22 +47,12 @@ public class DeleteCommand extends Subcommand {
             context.getSource().sendFailure(Component.literal("§cFailed to delete tiers.json."));
         }
 
-        // Robustly delete the entire player data directory
-        if (playersDir.exists()) {
-            try {
-                java.nio.file.Files.walk(playersDir.toPath())
-                    .sorted(java.util.Comparator.reverseOrder())
-                    .map(java.nio.file.Path::toFile)
-                    .forEach(java.io.File::delete);
-            } catch (java.io.IOException e) {
-                success = false;
-                context.getSource().sendFailure(Component.literal("§cFailed to delete player data directory: " + e.getMessage()));
-            }
-        }
-        
         // This is the most important part: reset the data in memory
         CobblePass.resetInstance();
 
+        // Player records no longer match the reset season and are removed in the background
+        CobblePass.battlePass.resetAllPlayerData();
+
         if (success) {
             context.getSource().sendSuccess(() -> Component.literal("§aSuccessfully deleted all battle pass files and data."), false);
         } else {
@@ -0,0 +1,54 @@
+package com.cobblemon.mdks.cobblepass.command.subcommand;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.util.Subcommand;
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.GameProfileArgument;
+import net.minecraft.network.chat.Component;
+
+public class GiveRewardCommand extends Subcommand {
+
+    public GiveRewardCommand() {
+        super("§9Usage:\n§3- /battlepass givereward <player> <level> [premium]");
+    }
+
+    @Override
+    public LiteralCommandNode<CommandSourceStack> build() {
+        return Commands.literal("givereward")
+                .requires(source -> source.hasPermission(4)) // Requires operator permission level
+                .executes(this::showUsage)
+                .then(Commands.argument("player", GameProfileArgument.gameProfile())
+                        .then(Commands.argument("level", IntegerArgumentType.integer(1))
+                                .executes(context -> give(context, false))
+                                .then(Commands.argument("premium", BoolArgumentType.bool())
+                                        .executes(context -> give(context, BoolArgumentType.getBool(context, "premium"))))))
+                .build();
+    }
+
+    private int give(CommandContext<CommandSourceStack> context, boolean premium) throws CommandSyntaxException {
+        int level = IntegerArgumentType.getInteger(context, "level");
+        for (GameProfile target : GameProfileArgument.getGameProfiles(context, "player")) {
+            // Offline players find it in their mailbox
+            if (!CobblePass.battlePass.giveReward(target.getId(), level, premium)) {
+                context.getSource().sendSystemMessage(Component.literal(
+                        String.format("§cError: Level %d has no %s reward", level, premium ? "premium" : "free")));
+                return 0;
+            }
+            context.getSource().sendSuccess(() -> Component.literal(
+                    String.format("§aGave the level %d %s reward to %s", level, premium ? "premium" : "free", target.getName())), true);
+        }
+        return 1;
+    }
+
+    @Override
+    public int run(CommandContext<CommandSourceStack> context) {
+        return showUsage(context);
+    }
+}
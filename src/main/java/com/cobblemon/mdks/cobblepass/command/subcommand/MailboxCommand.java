@@ -0,0 +1,150 @@
+package com.cobblemon.mdks.cobblepass.command.subcommand;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.MailEntry;
+import com.cobblemon.mdks.cobblepass.battlepass.RewardMailbox;
+import com.cobblemon.mdks.cobblepass.command.BattlePassCommand;
+import com.cobblemon.mdks.cobblepass.util.Constants;
+import com.cobblemon.mdks.cobblepass.util.Subcommand;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+
+import ca.landonjw.gooeylibs2.api.UIManager;
+import ca.landonjw.gooeylibs2.api.button.Button;
+import ca.landonjw.gooeylibs2.api.button.GooeyButton;
+import ca.landonjw.gooeylibs2.api.page.GooeyPage;
+import ca.landonjw.gooeylibs2.api.template.types.ChestTemplate;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Unit;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.component.ItemLore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MailboxCommand extends Subcommand {
+    // The bottom row holds the buttons
+    private static final int ENTRIES_PER_PAGE = 45;
+
+    public MailboxCommand() {
+        super("§9Usage:\n§3- /battlepass mailbox");
+    }
+
+    @Override
+    public LiteralCommandNode<CommandSourceStack> build() {
+        return Commands.literal("mailbox")
+                .executes(this::run)
+                .build();
+    }
+
+    @Override
+    public int run(CommandContext<CommandSourceStack> context) {
+        if (!context.getSource().isPlayer()) {
+            context.getSource().sendSystemMessage(
+                    Component.literal(Constants.ERROR_PREFIX + "This command must be run by a player!")
+            );
+            return 1;
+        }
+        open(context.getSource().getPlayer());
+        return 1;
+    }
+
+    /**
+     * Show the player's mailbox once it has been read
+     */
+    public static void open(ServerPlayer player) {
+        RewardMailbox mailbox = CobblePass.battlePass.getMailbox();
+        if (!mailbox.hasMail(player.getUUID())) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_MAILBOX_EMPTY));
+            return;
+        }
+        mailbox.get(player.getUUID()).whenComplete((entries, error) -> {
+            if (error != null) {
+                player.sendSystemMessage(Component.literal(Constants.MSG_MAILBOX_UNREADABLE));
+            } else {
+                show(player, entries);
+            }
+        });
+    }
+
+    private static void show(ServerPlayer player, List<MailEntry> entries) {
+        if (entries.isEmpty()) {
+            player.closeContainer();
+            player.sendSystemMessage(Component.literal(Constants.MSG_MAILBOX_EMPTY));
+            return;
+        }
+
+        Button background = GooeyButton.builder()
+                .display(new ItemStack(Items.LIGHT_GRAY_STAINED_GLASS_PANE))
+                .with(DataComponents.CUSTOM_NAME, Component.literal("§7 "))
+                .with(DataComponents.HIDE_ADDITIONAL_TOOLTIP, Unit.INSTANCE)
+                .build();
+
+        Button backButton = GooeyButton.builder()
+                .display(new ItemStack(Items.ARROW))
+                .with(DataComponents.CUSTOM_NAME, Component.literal("§f← Back to Battle Pass"))
+                .with(DataComponents.HIDE_ADDITIONAL_TOOLTIP, Unit.INSTANCE)
+                .onClick(action -> BattlePassCommand.showBattlePassInfo(player))
+                .build();
+
+        Button takeAllButton = GooeyButton.builder()
+                .display(new ItemStack(Items.CHEST))
+                .with(DataComponents.CUSTOM_NAME, Component.literal("§aTake Everything"))
+                .with(DataComponents.LORE, new ItemLore(List.of(
+                        Component.literal(String.format("§7%d rewards waiting", entries.size())))))
+                .with(DataComponents.HIDE_ADDITIONAL_TOOLTIP, Unit.INSTANCE)
+                .onClick(action -> {
+                    takeAll(player, entries);
+                    show(player, entries);
+                })
+                .build();
+
+        ChestTemplate template = ChestTemplate.builder(6)
+                .fill(background)
+                .set(5, 0, backButton)
+                .set(5, 4, takeAllButton)
+                .build();
+
+        for (int i = 0; i < Math.min(entries.size(), ENTRIES_PER_PAGE); i++) {
+            MailEntry entry = entries.get(i);
+            ItemStack display = entry.createDisplayItem();
+            if (display.isEmpty()) {
+                display = new ItemStack(Items.PAPER);
+            }
+            template.set(i / 9, i % 9, GooeyButton.builder()
+                    .display(display)
+                    .with(DataComponents.LORE, new ItemLore(List.of(Component.literal("§7Click to take"))))
+                    .onClick(action -> {
+                        if (!CobblePass.battlePass.getMailbox().take(player, entry)) {
+                            player.sendSystemMessage(Component.literal(Constants.MSG_MAILBOX_FULL));
+                        }
+                        show(player, entries);
+                    })
+                    .build());
+        }
+
+        GooeyPage page = GooeyPage.builder()
+                .template(template)
+                .title("§3Reward Mailbox")
+                .build();
+        UIManager.openUIForcefully(player, page);
+    }
+
+    private static void takeAll(ServerPlayer player, List<MailEntry> entries) {
+        RewardMailbox mailbox = CobblePass.battlePass.getMailbox();
+        boolean full = false;
+        for (MailEntry entry : new ArrayList<>(entries)) {
+            if (!mailbox.take(player, entry)) {
+                full = true;
+            }
+        }
+        if (full) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_MAILBOX_FULL));
+        }
+    }
+}
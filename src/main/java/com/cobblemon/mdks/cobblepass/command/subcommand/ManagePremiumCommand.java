@@ -3,15 +3,18 @@ package com.cobblemon.mdks.cobblepass.command.subcommand;
 import com.cobblemon.mdks.cobblepass.CobblePass;
 import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
 import com.cobblemon.mdks.cobblepass.util.Subcommand;
+import com.mojang.authlib.GameProfile;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
-import net.minecraft.commands.arguments.EntityArgument;
+import net.minecraft.commands.arguments.GameProfileArgument;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.util.Collection;
+
 public class ManagePremiumCommand extends Subcommand {
 
     public ManagePremiumCommand() {
@@ -23,51 +26,47 @@ public class ManagePremiumCommand extends Subcommand {
         return Commands.literal("premiumanage")
                 .requires(source -> source.hasPermission(4)) // Requires operator permission level
                 .then(Commands.literal("add")
-                        .then(Commands.argument("player", EntityArgument.player())
-                                .executes(this::addPremium)))
+                        .then(Commands.argument("player", GameProfileArgument.gameProfile())
+                                .executes(context -> setPremium(context, true))))
                 .then(Commands.literal("remove")
-                        .then(Commands.argument("player", EntityArgument.player())
-                                .executes(this::removePremium)))
+                        .then(Commands.argument("player", GameProfileArgument.gameProfile())
+                                .executes(context -> setPremium(context, false))))
                 .build();
     }
 
-    private int addPremium(CommandContext<CommandSourceStack> context) {
-        ServerPlayer target = null;
+    // Accepts offline players too, so store integrations can grant premium at any time
+    private int setPremium(CommandContext<CommandSourceStack> context, boolean premium) {
+        Collection<GameProfile> targets;
         try {
-            target = EntityArgument.getPlayer(context, "player");
+            targets = GameProfileArgument.getGameProfiles(context, "player");
         } catch (Exception e) {
             context.getSource().sendFailure(Component.literal("Invalid player specified."));
             return 0;
         }
 
-        final ServerPlayer finalTarget = target;
-        PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(finalTarget);
-        pass.setPremium(true);
-        CobblePass.battlePass.savePlayerPass(finalTarget.getUUID().toString());
+        for (GameProfile target : targets) {
+            PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(target.getId());
+            if (pass == null) {
+                context.getSource().sendFailure(Component.literal("§cThe battle pass of " + target.getName() + " is still loading or could not be loaded"));
+                continue;
+            }
+            pass.setPremium(premium);
+            CobblePass.battlePass.savePlayerPass(target.getId().toString());
 
-        context.getSource().sendSuccess(() -> Component.literal("§aSuccessfully added premium status to " + finalTarget.getName().getString()), false);
-        finalTarget.sendSystemMessage(Component.literal("§aYour Battle Pass has been upgraded to Premium!"));
+            if (premium) {
+                context.getSource().sendSuccess(() -> Component.literal("§aSuccessfully added premium status to " + target.getName()), false);
+            } else {
+                context.getSource().sendSuccess(() -> Component.literal("§aSuccessfully removed premium status from " + target.getName()), false);
+            }
 
-        return 1;
-    }
-
-    private int removePremium(CommandContext<CommandSourceStack> context) {
-        ServerPlayer target = null;
-        try {
-            target = EntityArgument.getPlayer(context, "player");
-        } catch (Exception e) {
-            context.getSource().sendFailure(Component.literal("Invalid player specified."));
-            return 0;
+            ServerPlayer online = context.getSource().getServer().getPlayerList().getPlayer(target.getId());
+            if (online != null) {
+                online.sendSystemMessage(Component.literal(premium
+                        ? "§aYour Battle Pass has been upgraded to Premium!"
+                        : "§cYour Battle Pass is no longer Premium."));
+            }
         }
 
-        final ServerPlayer finalTarget = target;
-        PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(finalTarget);
-        pass.setPremium(false);
-        CobblePass.battlePass.savePlayerPass(finalTarget.getUUID().toString());
-
-        context.getSource().sendSuccess(() -> Component.literal("§aSuccessfully removed premium status from " + finalTarget.getName().getString()), false);
-        finalTarget.sendSystemMessage(Component.literal("§cYour Battle Pass is no longer Premium."));
-
         return 1;
     }
 
@@ -5,7 +5,6 @@ import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
 import com.cobblemon.mdks.cobblepass.util.Constants;
 import com.cobblemon.mdks.cobblepass.util.EconomyUtils;
 import com.cobblemon.mdks.cobblepass.util.Subcommand;
-import com.cobblemon.mdks.cobblepass.util.Utils;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.tree.LiteralCommandNode;
 import net.minecraft.commands.CommandSourceStack;
@@ -55,8 +54,14 @@ public class PremiumCommand extends Subcommand {
             return 1;
         }
 
+        PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(player);
+        if (pass == null) {
+            player.sendSystemMessage(Component.literal(Constants.MSG_PASS_LOADING));
+            return 1;
+        }
+
         // Check if player already has premium
-        if (CobblePass.battlePass.getPlayerPass(player).hasPremium()) {
+        if (pass.hasPremium()) {
             player.sendSystemMessage(Component.literal("§cYou already have premium battle pass for this season!"));
             return 1;
         }
@@ -76,14 +81,11 @@ public class PremiumCommand extends Subcommand {
         }
 
         // Grant premium
-        PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(player);
         pass.setPremium(true);
         
         // Save immediately
-        String filename = player.getUUID() + ".json";
-        Utils.writeFileSync(Constants.PLAYER_DATA_DIR, filename,
-                Utils.newGson().toJson(pass.toJson()));
-                
+        CobblePass.battlePass.savePlayerPass(player.getUUID().toString());
+
         player.sendSystemMessage(Component.literal("§aSuccessfully purchased premium battle pass for Season " + 
             CobblePass.config.getCurrentSeason() + " for " + EconomyUtils.formatCurrency(cost) + "!"));
 
@@ -100,11 +102,12 @@ public class PremiumCommand extends Subcommand {
         player.sendSystemMessage(Component.literal("§6=== Premium Battle Pass Info ==="));
         
         if (CobblePass.config.isSeasonActive()) {
+            PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(player);
             player.sendSystemMessage(Component.literal("§3Current Season: §b" + CobblePass.config.getCurrentSeason()));
             player.sendSystemMessage(Component.literal("§3Time Remaining: §b" + 
                 formatTimeRemaining(CobblePass.config.getSeasonEndTime() - System.currentTimeMillis())));
             player.sendSystemMessage(Component.literal("§3Your Status: §b" + 
-                (CobblePass.battlePass.getPlayerPass(player).hasPremium() ? "Premium" : "Free")));
+                (pass == null ? "Loading..." : pass.hasPremium() ? "Premium" : "Free")));
             player.sendSystemMessage(Component.literal("§3Get premium with: §b/battlepass premium buy"));
         } else {
             player.sendSystemMessage(Component.literal(Constants.MSG_NO_ACTIVE_SEASON));
@@ -0,0 +1,65 @@
+package com.cobblemon.mdks.cobblepass.command.subcommand;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.data.RewardErrorReport;
+import com.cobblemon.mdks.cobblepass.util.Subcommand;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.util.List;
+
+public class RewardErrorsCommand extends Subcommand {
+
+    public RewardErrorsCommand() {
+        super("§9Usage:\n§3- /battlepass rewarderrors [clear]");
+    }
+
+    @Override
+    public LiteralCommandNode<CommandSourceStack> build() {
+        return Commands.literal("rewarderrors")
+                .requires(source -> source.hasPermission(4)) // Requires operator permission level
+                .executes(this::run)
+                .then(Commands.literal("clear")
+                        .executes(this::clear))
+                .build();
+    }
+
+    private int clear(CommandContext<CommandSourceStack> context) {
+        CobblePass.battlePass.getRewardErrors().clearFailures();
+        context.getSource().sendSuccess(() -> Component.literal("§aCleared the list of failed rewards"), true);
+        return 1;
+    }
+
+    @Override
+    public int run(CommandContext<CommandSourceStack> context) {
+        RewardErrorReport report = CobblePass.battlePass.getRewardErrors();
+        List<String> invalid = report.getInvalid();
+        List<String> failures = report.getFailures();
+        if (invalid.isEmpty() && failures.isEmpty()) {
+            context.getSource().sendSystemMessage(Component.literal("§aAll rewards are valid and none have failed"));
+            return 1;
+        }
+
+        StringBuilder message = new StringBuilder();
+        if (!invalid.isEmpty()) {
+            message.append("§6Invalid rewards in tiers.json:");
+            for (String line : invalid) {
+                message.append("\n§c- ").append(line);
+            }
+        }
+        if (!failures.isEmpty()) {
+            if (message.length() > 0) {
+                message.append('\n');
+            }
+            message.append("§6Failed rewards (oldest first):");
+            for (String line : failures) {
+                message.append("\n§c- ").append(line);
+            }
+        }
+        context.getSource().sendSystemMessage(Component.literal(message.toString()));
+        return 1;
+    }
+}
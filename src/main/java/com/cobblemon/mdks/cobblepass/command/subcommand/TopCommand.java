@@ -0,0 +1,55 @@
+package com.cobblemon.mdks.cobblepass.command.subcommand;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+import com.cobblemon.mdks.cobblepass.util.Subcommand;
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.List;
+
+public class TopCommand extends Subcommand {
+    private static final int LEADERBOARD_SIZE = 10;
+
+    public TopCommand() {
+        super("§9Usage:\n§3- /battlepass top");
+    }
+
+    @Override
+    public LiteralCommandNode<CommandSourceStack> build() {
+        return Commands.literal("top")
+                .executes(this::run)
+                .build();
+    }
+
+    @Override
+    public int run(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        MinecraftServer server = source.getServer();
+
+        // The query runs on the I/O thread, the reply is sent from the server thread
+        CobblePass.battlePass.getTopPlayers(LEADERBOARD_SIZE).thenAccept(top -> server.execute(() -> show(source, server, top)));
+        return 1;
+    }
+
+    private void show(CommandSourceStack source, MinecraftServer server, List<PlayerBattlePass> top) {
+        source.sendSystemMessage(Component.literal("§6=== Battle Pass Leaderboard ==="));
+        if (top.isEmpty()) {
+            source.sendSystemMessage(Component.literal("§7No players have progress yet."));
+            return;
+        }
+
+        int rank = 1;
+        for (PlayerBattlePass pass : top) {
+            String name = server.getProfileCache() == null ? pass.getPlayerId().toString()
+                    : server.getProfileCache().get(pass.getPlayerId()).map(GameProfile::getName).orElse(pass.getPlayerId().toString());
+            source.sendSystemMessage(Component.literal(String.format("§e%d. §b%s §7- §fLevel %d §7(%d XP)",
+                    rank++, name, pass.getLevel(), pass.getXP())));
+        }
+    }
+}
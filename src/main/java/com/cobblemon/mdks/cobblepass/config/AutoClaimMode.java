@@ -0,0 +1,18 @@
+package com.cobblemon.mdks.cobblepass.config;
+
+/**
+ * Which rewards are claimed for players automatically when they level up
+ */
+public enum AutoClaimMode {
+    OFF,
+    FREE,   // Free rewards only
+    ALL;    // Free rewards, and premium rewards for premium players
+
+    public static AutoClaimMode fromString(String mode) {
+        try {
+            return valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return OFF;
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package com.cobblemon.mdks.cobblepass.config;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.ClaimBitmap;
+import com.cobblemon.mdks.cobblepass.battlepass.XpSource;
 import com.cobblemon.mdks.cobblepass.util.Constants;
 import com.cobblemon.mdks.cobblepass.util.Utils;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class Config {
     private int maxLevel;
@@ -14,13 +19,30 @@ public class Config {
     private int evolveXP;
     private int hatchXP;
     private int tradeXP;
+    private int battleWinXP;
     private long premiumCost;
     private int seasonDurationDays;
     private int currentSeason;
+    private int legacySeason;
     private long seasonStartTime;
     private long seasonEndTime;
     private boolean enablePermissionNodes;
+    private int saveIntervalSeconds;
+    private int offlineCacheSize;
+    private String storageBackend;
+    private boolean binaryPlayerData;
+    private boolean prettyPlayerData;
+    private boolean journalMode;
+    private int journalSyncMillis;
+    private boolean xpNotifications;
+    private int notifyWindowTicks;
+    private AutoClaimMode autoClaim;
     private XpProgression xpProgression;
+    // Rebuilt whenever the progression or max level changes; replaced, never modified
+    private volatile XpCurve xpCurve;
+    private List<XpRule> xpRules;
+    // Compiled from xpRules once the Pokémon registries are loaded; replaced, never modified
+    private volatile XpRuleTable xpRuleTable;
 
     private boolean premiumMode;
 
@@ -39,27 +61,42 @@ public class Config {
         this.evolveXP = Constants.DEFAULT_EVOLVE_XP;
         this.hatchXP = Constants.DEFAULT_HATCH_XP;
         this.tradeXP = Constants.DEFAULT_TRADE_XP;
+        this.battleWinXP = Constants.DEFAULT_BATTLE_WIN_XP;
         this.premiumCost = Constants.DEFAULT_PREMIUM_COST;
         this.seasonDurationDays = 60;
         this.currentSeason = 0;
+        this.legacySeason = 0;
         this.seasonStartTime = 0;
         this.seasonEndTime = 0;
         this.enablePermissionNodes = Constants.DEFAULT_ENABLE_PERMISSION_NODES;
+        this.saveIntervalSeconds = Constants.DEFAULT_SAVE_INTERVAL_SECONDS;
+        this.offlineCacheSize = Constants.DEFAULT_OFFLINE_CACHE_SIZE;
+        this.storageBackend = Constants.DEFAULT_STORAGE_BACKEND;
+        this.binaryPlayerData = false;
+        this.prettyPlayerData = false;
+        this.journalMode = false;
+        this.journalSyncMillis = Constants.DEFAULT_JOURNAL_SYNC_MILLIS;
+        this.xpNotifications = true;
+        this.notifyWindowTicks = Constants.DEFAULT_NOTIFY_WINDOW_TICKS;
+        this.autoClaim = AutoClaimMode.OFF;
         this.xpProgression = new XpProgression();
         this.premiumMode = false;
+        this.xpCurve = XpCurve.build(xpProgression, maxLevel);
+        this.xpRules = new ArrayList<>();
+        this.xpRuleTable = XpRuleTable.base(this);
     }
 
     public void load() {
         // Ensure config directory exists
         Utils.checkForDirectory("/" + Constants.CONFIG_PATH);
         
-        String content = Utils.readFileSync(Constants.CONFIG_PATH, Constants.CONFIG_FILE);
-        if (content == null || content.isEmpty()) {
-            return;
-        }
-
         try {
-            JsonObject json = JsonParser.parseString(content).getAsJsonObject();
+            JsonObject json = Utils.readJsonFile(Constants.CONFIG_PATH, Constants.CONFIG_FILE);
+            if (json == null) {
+                // Deleted by /bp delete; stay in the season it moved on to
+                currentSeason = Math.max(currentSeason, lastSeason());
+                return;
+            }
             loadFromJson(json);
         } catch (Exception e) {
             CobblePass.LOGGER.error("Failed to load config", e);
@@ -67,19 +104,32 @@ public class Config {
     }
 
     private void loadFromJson(JsonObject json) {
-        maxLevel = getOrDefault(json, "maxLevel", Constants.DEFAULT_MAX_LEVEL);
+        maxLevel = clampMaxLevel(getOrDefault(json, "maxLevel", Constants.DEFAULT_MAX_LEVEL));
         catchXP = getOrDefault(json, "catchXP", Constants.DEFAULT_CATCH_XP);
         defeatXP = getOrDefault(json, "defeatXP", Constants.DEFAULT_DEFEAT_XP);
         evolveXP = getOrDefault(json, "evolveXP", Constants.DEFAULT_EVOLVE_XP);
         hatchXP = getOrDefault(json, "hatchXP", Constants.DEFAULT_HATCH_XP);
         tradeXP = getOrDefault(json, "tradeXP", Constants.DEFAULT_TRADE_XP);
+        battleWinXP = getOrDefault(json, "battleWinXP", Constants.DEFAULT_BATTLE_WIN_XP);
         premiumCost = getOrDefault(json, "premiumCost", Constants.DEFAULT_PREMIUM_COST);
         seasonDurationDays = getOrDefault(json, "seasonDurationDays", 60);
         currentSeason = getOrDefault(json, "currentSeason", 0);
+        // Player data written before records were tagged with a season belongs to the season current at upgrade
+        legacySeason = getOrDefault(json, "legacySeason", currentSeason);
         seasonStartTime = getOrDefault(json, "seasonStartTime", 0L);
         seasonEndTime = getOrDefault(json, "seasonEndTime", 0L);
         enablePermissionNodes = getOrDefault(json, "enablePermissionNodes", Constants.DEFAULT_ENABLE_PERMISSION_NODES);
         premiumMode = getOrDefault(json, "premiumMode", false);
+        saveIntervalSeconds = Math.max(1, getOrDefault(json, "saveIntervalSeconds", Constants.DEFAULT_SAVE_INTERVAL_SECONDS));
+        offlineCacheSize = Math.max(0, getOrDefault(json, "offlineCacheSize", Constants.DEFAULT_OFFLINE_CACHE_SIZE));
+        storageBackend = getOrDefault(json, "storageBackend", Constants.DEFAULT_STORAGE_BACKEND);
+        binaryPlayerData = getOrDefault(json, "binaryPlayerData", false);
+        prettyPlayerData = getOrDefault(json, "prettyPlayerData", false);
+        journalMode = getOrDefault(json, "journalMode", false);
+        journalSyncMillis = Math.max(1, getOrDefault(json, "journalSyncMillis", Constants.DEFAULT_JOURNAL_SYNC_MILLIS));
+        xpNotifications = getOrDefault(json, "xpNotifications", true);
+        notifyWindowTicks = Math.max(1, getOrDefault(json, "notifyWindowTicks", Constants.DEFAULT_NOTIFY_WINDOW_TICKS));
+        autoClaim = AutoClaimMode.fromString(getOrDefault(json, "autoClaim", Constants.DEFAULT_AUTO_CLAIM));
 
         if (json.has("xpProgression") && json.get("xpProgression").isJsonObject()) {
             this.xpProgression = new XpProgression();
@@ -87,6 +137,35 @@ public class Config {
         } else {
             this.xpProgression = new XpProgression();
         }
+        this.xpCurve = XpCurve.build(xpProgression, maxLevel);
+
+        this.xpRules = new ArrayList<>();
+        if (json.has("xpRules") && json.get("xpRules").isJsonArray()) {
+            for (JsonElement rule : json.getAsJsonArray("xpRules")) {
+                if (rule.isJsonObject()) {
+                    xpRules.add(XpRule.fromJson(rule.getAsJsonObject()));
+                }
+            }
+        }
+        // Rules that name species, types or labels need the registries; see compileXpRules
+        this.xpRuleTable = CobblePass.server != null ? XpRuleTable.compile(this) : XpRuleTable.base(this);
+    }
+
+    /**
+     * Compile the XP rules against the loaded species. Called once the server has started,
+     * since the Pokémon registries are not available while the config is first loaded.
+     */
+    public void compileXpRules() {
+        this.xpRuleTable = XpRuleTable.compile(this);
+    }
+
+    // Claims are tracked for levels below ClaimBitmap.MAX_LEVELS only
+    private static int clampMaxLevel(int maxLevel) {
+        if (maxLevel >= ClaimBitmap.MAX_LEVELS) {
+            CobblePass.LOGGER.warn("maxLevel " + maxLevel + " is above the supported maximum, using " + (ClaimBitmap.MAX_LEVELS - 1));
+            return ClaimBitmap.MAX_LEVELS - 1;
+        }
+        return maxLevel;
     }
 
     private <T> T getOrDefault(JsonObject json, String key, T defaultValue) {
@@ -116,17 +195,32 @@ public class Config {
         json.addProperty("evolveXP", evolveXP);
         json.addProperty("hatchXP", hatchXP);
         json.addProperty("tradeXP", tradeXP);
+        json.addProperty("battleWinXP", battleWinXP);
         json.addProperty("premiumCost", premiumCost);
         json.addProperty("seasonDurationDays", seasonDurationDays);
         json.addProperty("currentSeason", currentSeason);
+        json.addProperty("legacySeason", legacySeason);
         json.addProperty("seasonStartTime", seasonStartTime);
         json.addProperty("seasonEndTime", seasonEndTime);
         json.addProperty("enablePermissionNodes", enablePermissionNodes);
         json.add("xpProgression", xpProgression.toJson());
+        JsonArray rules = new JsonArray();
+        xpRules.forEach(rule -> rules.add(rule.toJson()));
+        json.add("xpRules", rules);
         json.addProperty("premiumMode", premiumMode);
+        json.addProperty("saveIntervalSeconds", saveIntervalSeconds);
+        json.addProperty("offlineCacheSize", offlineCacheSize);
+        json.addProperty("storageBackend", storageBackend);
+        json.addProperty("binaryPlayerData", binaryPlayerData);
+        json.addProperty("prettyPlayerData", prettyPlayerData);
+        json.addProperty("journalMode", journalMode);
+        json.addProperty("journalSyncMillis", journalSyncMillis);
+        json.addProperty("xpNotifications", xpNotifications);
+        json.addProperty("notifyWindowTicks", notifyWindowTicks);
+        json.addProperty("autoClaim", autoClaim.name());
 
-        Utils.writeFileSync(Constants.CONFIG_PATH, Constants.CONFIG_FILE,
-                Utils.newGson().toJson(json));
+        Utils.writeJsonAtomic(Constants.CONFIG_PATH, Constants.CONFIG_FILE, true,
+                writer -> Utils.PRETTY_GSON.toJson(json, writer));
     }
 
     // Getters
@@ -136,22 +230,65 @@ public class Config {
     public int getEvolveXP() { return evolveXP; }
     public int getHatchXP() { return hatchXP; }
     public int getTradeXP() { return tradeXP; }
+    public int getBattleWinXP() { return battleWinXP; }
     public long getPremiumCost() { return premiumCost; }
     public int getCurrentSeason() { return currentSeason; }
+    public int getLegacySeason() { return legacySeason; }
     public boolean isEnablePermissionNodes() { return enablePermissionNodes; }
     public XpProgression getXpProgression() { return xpProgression; }
+    public XpCurve getXpCurve() { return xpCurve; }
+    public List<XpRule> getXpRuleList() { return xpRules; }
+    public XpRuleTable getXpRules() { return xpRuleTable; }
     public boolean isPremiumMode() { return premiumMode; }
+    public int getSaveIntervalSeconds() { return saveIntervalSeconds; }
+    public int getOfflineCacheSize() { return offlineCacheSize; }
+    public String getStorageBackend() { return storageBackend; }
+    public boolean isBinaryPlayerData() { return binaryPlayerData; }
+    public boolean isPrettyPlayerData() { return prettyPlayerData; }
+    public boolean isJournalMode() { return journalMode; }
+    public int getJournalSyncMillis() { return journalSyncMillis; }
+    public boolean isXpNotifications() { return xpNotifications; }
+    public int getNotifyWindowTicks() { return notifyWindowTicks; }
+    public AutoClaimMode getAutoClaim() { return autoClaim; }
     
+    public int getBaseXp(XpSource source) {
+        return switch (source) {
+            case CATCH -> catchXP;
+            case DEFEAT -> defeatXP;
+            case EVOLVE -> evolveXP;
+            case HATCH -> hatchXP;
+            case TRADE -> tradeXP;
+            case BATTLE_WIN -> battleWinXP;
+        };
+    }
+
     public void createNewSeason(int duration, int maxLevel, boolean premium) {
-        currentSeason++;
+        advanceSeason();
         seasonDurationDays = duration;
-        this.maxLevel = maxLevel;
+        this.maxLevel = clampMaxLevel(maxLevel);
         this.premiumMode = premium;
+        this.xpCurve = XpCurve.build(xpProgression, this.maxLevel);
         seasonStartTime = 0;
         seasonEndTime = 0;
         save();
     }
 
+    /**
+     * Move on to a season number that has never been used, so every stored player record
+     * belongs to an earlier season
+     */
+    public void advanceSeason() {
+        // config.json is removed by /bp delete, so the last season number is also kept on its
+        // own; player records are tagged with it and a new season must never reuse one
+        currentSeason = Math.max(currentSeason, lastSeason()) + 1;
+        Utils.writeFileAtomic(Constants.CONFIG_PATH, Constants.SEASON_FILE, String.valueOf(currentSeason));
+    }
+
+    private static int lastSeason() {
+        String lastSeason = Utils.readFileSync(Constants.CONFIG_PATH, Constants.SEASON_FILE);
+        return lastSeason != null && Utils.isInteger(lastSeason.trim()) ? Integer.parseInt(lastSeason.trim()) : 0;
+    }
+
     public void startNewSeason() {
         seasonStartTime = System.currentTimeMillis();
         seasonEndTime = seasonStartTime + (seasonDurationDays * Constants.MILLIS_PER_DAY);
@@ -3,16 +3,18 @@ package com.cobblemon.mdks.cobblepass.config;
 import com.cobblemon.mdks.cobblepass.CobblePass;
 import com.cobblemon.mdks.cobblepass.battlepass.BattlePassTier;
 import com.cobblemon.mdks.cobblepass.data.Reward;
+import com.cobblemon.mdks.cobblepass.data.RewardErrorReport;
+import com.cobblemon.mdks.cobblepass.data.RewardPool;
 import com.cobblemon.mdks.cobblepass.data.RewardType;
 import com.cobblemon.mdks.cobblepass.util.Constants;
 import com.cobblemon.mdks.cobblepass.util.Utils;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import net.minecraft.world.item.Items;
+import net.minecraft.core.RegistryAccess;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class TierConfig {
@@ -20,27 +22,70 @@ public class TierConfig {
     private static final String TIERS_PATH = Constants.CONFIG_DIR;
     
     private final Map<Integer, BattlePassTier> tiers = new HashMap<>();
+    private final Map<String, RewardPool> pools = new LinkedHashMap<>();
 
     public TierConfig() {
         // Do not load here
     }
 
     public void load() {
-        String content = Utils.readFileSync(TIERS_PATH, TIERS_FILE);
-        if (content == null || content.isEmpty()) {
-            return;
-        }
-
         try {
-            JsonObject json = JsonParser.parseString(content).getAsJsonObject();
+            JsonObject json = Utils.readJsonFile(TIERS_PATH, TIERS_FILE);
+            if (json == null) {
+                return;
+            }
             loadFromJson(json);
+            if (CobblePass.server != null) {
+                compile(CobblePass.server.registryAccess());
+            }
         } catch (Exception e) {
             CobblePass.LOGGER.error("Failed to load tier config", e);
         }
     }
 
+    /**
+     * Compile every reward against the loaded registries and report the invalid ones.
+     * Runs once the server has started and after every load from then on.
+     */
+    public void compile(RegistryAccess registryAccess) {
+        RewardErrorReport report = CobblePass.battlePass.getRewardErrors();
+        report.clearInvalid();
+        int invalid = 0;
+        for (RewardPool pool : pools.values()) {
+            if (!pool.compile(registryAccess)) {
+                CobblePass.LOGGER.error("Invalid reward pool " + pool.getName() + " in " + TIERS_FILE + ": " + pool.getError());
+                report.addInvalid("Pool " + pool.getName(), pool.getError());
+                invalid++;
+            }
+        }
+        for (BattlePassTier tier : tiers.values()) {
+            invalid += compile(registryAccess, report, tier.getLevel(), "free", tier.getFreeReward());
+            invalid += compile(registryAccess, report, tier.getLevel(), "premium", tier.getPremiumReward());
+            try {
+                tier.buildDisplayItems();
+            } catch (RuntimeException e) {
+                // Keep compiling the other tiers
+                CobblePass.LOGGER.error("Failed to build the menu items for level " + tier.getLevel() + " in " + TIERS_FILE, e);
+                report.addInvalid("Level " + tier.getLevel() + " display", String.valueOf(e.getMessage()));
+            }
+        }
+        if (invalid > 0) {
+            CobblePass.LOGGER.error(invalid + " battle pass rewards in " + TIERS_FILE + " are invalid and can't be claimed until fixed");
+        }
+    }
+
+    private static int compile(RegistryAccess registryAccess, RewardErrorReport report, int level, String track, Reward reward) {
+        if (reward == null || reward.compile(registryAccess)) {
+            return 0;
+        }
+        CobblePass.LOGGER.error("Invalid " + track + " reward for level " + level + " in " + TIERS_FILE + ": " + reward.getError());
+        report.addInvalid("Level " + level + " " + track, reward.getError());
+        return 1;
+    }
+
     private void loadFromJson(JsonObject json) {
         tiers.clear();
+        pools.clear();
         
         // Load templates if they exist
         Map<String, JsonObject> templates = new HashMap<>();
@@ -51,6 +96,16 @@ public class TierConfig {
             }
         }
 
+        if (json.has("pools")) {
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("pools").entrySet()) {
+                try {
+                    pools.put(entry.getKey(), RewardPool.fromJson(entry.getKey(), entry.getValue().getAsJsonObject(), templates));
+                } catch (Exception e) {
+                    CobblePass.LOGGER.error("Failed to load reward pool " + entry.getKey() + " from " + TIERS_FILE + ": " + e.getMessage());
+                }
+            }
+        }
+
         JsonArray tiersArray = json.getAsJsonArray("tiers");
         
         for (JsonElement element : tiersArray) {
@@ -74,6 +129,14 @@ public class TierConfig {
 
         if (rewardElement.isJsonObject()) {
             JsonObject rewardObject = rewardElement.getAsJsonObject();
+            if (rewardObject.has("$pool")) {
+                RewardPool pool = pools.get(rewardObject.get("$pool").getAsString());
+                if (pool == null) {
+                    CobblePass.LOGGER.error("Unknown reward pool " + rewardObject.get("$pool").getAsString() + " in " + TIERS_FILE);
+                    return null;
+                }
+                return Reward.pool(pool);
+            }
             if (rewardObject.has("$template")) {
                 String templateName = rewardObject.get("$template").getAsString();
                 if (templates.containsKey(templateName)) {
@@ -122,28 +185,33 @@ public class TierConfig {
             // Template for 10 Poke Balls
             JsonObject pokeBallData = new JsonObject();
             pokeBallData.addProperty("type", "ITEM");
-            pokeBallData.add("data", new com.google.gson.Gson().fromJson("{id:\"cobblemon:poke_ball\",Count:10}", JsonObject.class));
+            pokeBallData.add("data", Utils.GSON.fromJson("{id:\"cobblemon:poke_ball\",Count:10}", JsonObject.class));
             templatesObj.add("pokeballs_10", pokeBallData);
 
             // Template for a Rare Candy
             JsonObject rareCandyData = new JsonObject();
             rareCandyData.addProperty("type", "ITEM");
-            rareCandyData.add("data", new com.google.gson.Gson().fromJson("{id:\"cobblemon:rare_candy\",Count:1}", JsonObject.class));
+            rareCandyData.add("data", Utils.GSON.fromJson("{id:\"cobblemon:rare_candy\",Count:1}", JsonObject.class));
             templatesObj.add("rare_candy", rareCandyData);
 
             // Template for a random shiny Eevee
             JsonObject eeveeData = new JsonObject();
             eeveeData.addProperty("type", "POKEMON");
-            eeveeData.add("data", new com.google.gson.Gson().fromJson("{species:\"eevee\",shiny:true}", JsonObject.class));
+            eeveeData.add("data", Utils.GSON.fromJson("{species:\"eevee\",shiny:true}", JsonObject.class));
             templatesObj.add("shiny_eevee", eeveeData);
 
             // Template for a command reward
             JsonObject commandData = new JsonObject();
             commandData.addProperty("type", "COMMAND");
-            commandData.add("data", new com.google.gson.Gson().fromJson("{command:\"say Hello %player%!\",display_name:\"Greeting\",id:\"minecraft:paper\"}", JsonObject.class));
+            commandData.add("data", Utils.GSON.fromJson("{command:\"say Hello %player%!\",display_name:\"Greeting\",id:\"minecraft:paper\"}", JsonObject.class));
             templatesObj.add("greeting_command", commandData);
         }
         json.add("templates", templatesObj);
+        if (!pools.isEmpty()) {
+            JsonObject poolsObj = new JsonObject();
+            pools.forEach((name, pool) -> poolsObj.add(name, pool.toJson()));
+            json.add("pools", poolsObj);
+        }
         // --- END NEW PART ---
 
         for (BattlePassTier tier : tiers.values()) {
@@ -164,7 +232,7 @@ public class TierConfig {
         }
 
         json.add("tiers", tiersArray);
-        Utils.writeFileSync(TIERS_PATH, TIERS_FILE, Utils.newGson().toJson(json));
+        Utils.writeJsonAtomic(TIERS_PATH, TIERS_FILE, true, writer -> Utils.PRETTY_GSON.toJson(json, writer));
     }
 
     private String extractItemId(String nbtString) {
@@ -0,0 +1,78 @@
+package com.cobblemon.mdks.cobblepass.config;
+
+import java.util.Arrays;
+
+/**
+ * XP requirements of every level, computed once from {@link XpProgression} when the
+ * config is loaded. Immutable, so a reload swaps in a new instance and readers never see
+ * a half-built table.
+ */
+public final class XpCurve {
+    private final int maxLevel;
+    // xpToNext[level] = XP needed to go from level to level + 1
+    private final int[] xpToNext;
+    // totalXp[level] = XP needed to get from level 1 to level
+    private final long[] totalXp;
+
+    private XpCurve(int maxLevel, int[] xpToNext) {
+        this.maxLevel = maxLevel;
+        this.xpToNext = xpToNext;
+        this.totalXp = new long[maxLevel + 1];
+        for (int level = 2; level <= maxLevel; level++) {
+            totalXp[level] = totalXp[level - 1] + xpToNext[level - 1];
+        }
+    }
+
+    public static XpCurve build(XpProgression progression, int maxLevel) {
+        maxLevel = Math.max(1, maxLevel);
+        int[] xpToNext = new int[maxLevel + 1];
+        boolean manual = progression.getMode().equalsIgnoreCase("MANUAL");
+        for (int level = 1; level <= maxLevel; level++) {
+            int xp = manual
+                    ? progression.getManualXpForLevel(level + 1)
+                    : (int) (progression.getXpPerLevel() * Math.pow(progression.getXpMultiplier(), level - 1));
+            xpToNext[level] = Math.max(0, xp);
+        }
+        return new XpCurve(maxLevel, xpToNext);
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * XP needed to go from the given level to the next one
+     */
+    public int xpToNext(int level) {
+        return xpToNext[Math.max(1, Math.min(level, maxLevel))];
+    }
+
+    /**
+     * XP needed to go from level 1 to the given level
+     */
+    public long totalXpFor(int level) {
+        return totalXp[Math.max(1, Math.min(level, maxLevel))];
+    }
+
+    /**
+     * XP needed to go from one level up to another, e.g. to grant a number of levels
+     */
+    public long xpBetween(int fromLevel, int toLevel) {
+        return totalXpFor(toLevel) - totalXpFor(fromLevel);
+    }
+
+    /**
+     * The level reached with the given XP counted from level 1
+     */
+    public int levelForTotalXp(long xp) {
+        int index = Arrays.binarySearch(totalXp, 1, maxLevel + 1, xp);
+        if (index < 0) {
+            return -index - 2;
+        }
+        // Levels that need no XP share a total; take the highest of them
+        while (index < maxLevel && totalXp[index + 1] == xp) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,101 @@
+package com.cobblemon.mdks.cobblepass.config;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One entry of the xpRules section in config.json. Every condition that is set must hold
+ * for the rule to apply; within a list, any entry matching is enough. A matching rule adds
+ * its bonus and perLevel XP to the base value of the event and multiplies the sum.
+ *
+ * <pre>
+ * { "events": ["CATCH"], "shiny": true, "multiplier": 1.5 }
+ * { "events": ["CATCH", "DEFEAT"], "labels": ["legendary"], "multiplier": 2.0 }
+ * { "events": ["DEFEAT"], "perLevel": 10 }
+ * { "types": ["fire"], "bonus": 25 }
+ * </pre>
+ * Rules are compiled into an {@link XpRuleTable} and never read on the event path.
+ */
+public class XpRule {
+    // Empty means every event
+    private List<String> events = new ArrayList<>();
+    private List<String> species = new ArrayList<>();
+    private List<String> types = new ArrayList<>();
+    private List<String> labels = new ArrayList<>();
+    // Null means shiny and non-shiny Pokémon alike
+    private Boolean shiny;
+    private int minLevel;
+    private int bonus;
+    private int perLevel;
+    private double multiplier = 1.0;
+
+    public List<String> getEvents() { return events; }
+    public List<String> getSpecies() { return species; }
+    public List<String> getTypes() { return types; }
+    public List<String> getLabels() { return labels; }
+    public Boolean getShiny() { return shiny; }
+    public int getMinLevel() { return minLevel; }
+    public int getBonus() { return bonus; }
+    public int getPerLevel() { return perLevel; }
+    public double getMultiplier() { return multiplier; }
+
+    /**
+     * Whether the rule depends on which Pokémon was involved
+     */
+    public boolean hasPokemonCondition() {
+        return !species.isEmpty() || !types.isEmpty() || !labels.isEmpty() || shiny != null || minLevel > 0;
+    }
+
+    public static XpRule fromJson(JsonObject json) {
+        XpRule rule = new XpRule();
+        rule.events = readList(json, "events");
+        rule.species = readList(json, "species");
+        rule.types = readList(json, "types");
+        rule.labels = readList(json, "labels");
+        if (json.has("shiny") && !json.get("shiny").isJsonNull()) {
+            rule.shiny = json.get("shiny").getAsBoolean();
+        }
+        if (json.has("minLevel")) rule.minLevel = json.get("minLevel").getAsInt();
+        if (json.has("bonus")) rule.bonus = json.get("bonus").getAsInt();
+        if (json.has("perLevel")) rule.perLevel = json.get("perLevel").getAsInt();
+        if (json.has("multiplier")) rule.multiplier = json.get("multiplier").getAsDouble();
+        return rule;
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        writeList(json, "events", events);
+        writeList(json, "species", species);
+        writeList(json, "types", types);
+        writeList(json, "labels", labels);
+        if (shiny != null) json.addProperty("shiny", shiny);
+        if (minLevel > 0) json.addProperty("minLevel", minLevel);
+        if (bonus != 0) json.addProperty("bonus", bonus);
+        if (perLevel != 0) json.addProperty("perLevel", perLevel);
+        if (multiplier != 1.0) json.addProperty("multiplier", multiplier);
+        return json;
+    }
+
+    private static List<String> readList(JsonObject json, String key) {
+        List<String> values = new ArrayList<>();
+        if (json.has(key) && json.get(key).isJsonArray()) {
+            for (JsonElement element : json.getAsJsonArray(key)) {
+                values.add(element.getAsString().toLowerCase());
+            }
+        }
+        return values;
+    }
+
+    private static void writeList(JsonObject json, String key, List<String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        JsonArray array = new JsonArray();
+        values.forEach(array::add);
+        json.add(key, array);
+    }
+}
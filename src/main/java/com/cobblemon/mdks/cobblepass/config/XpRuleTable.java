@@ -0,0 +1,251 @@
+package com.cobblemon.mdks.cobblepass.config;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.XpSource;
+import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
+import com.cobblemon.mod.common.api.types.ElementalType;
+import com.cobblemon.mod.common.api.types.ElementalTypes;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemon.mod.common.pokemon.Species;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The XP rules compiled into flat tables, one per {@link XpSource}. Rules are numbered per
+ * source and each species gets a bit mask of the rules whose species and label conditions
+ * it meets, indexed by national Pokédex number. Type conditions are checked against the
+ * types of the Pokémon's form, since regional forms can differ from their species, using
+ * one mask per type. Working out the XP for an event then only masks off type, shiny and
+ * level conditions and walks the set bits. Immutable, so a reload swaps in a new instance.
+ * <p>
+ * Species sharing a Pokédex number, which only happens with add-on species, share their
+ * rule matches.
+ */
+public final class XpRuleTable {
+    // A rule mask is a long
+    private static final int MAX_RULES = 64;
+
+    private final int[] base;
+    // Indexed by source, then by Pokédex number
+    private final long[][] speciesMasks;
+    // Rules without species or label conditions, for species missing from the index
+    private final long[] unconditional;
+    // Rules with a type condition, and per type the rules it meets, indexed by source
+    private final long[] typed;
+    private final Map<ElementalType, long[]> typeMasks = new HashMap<>();
+    // Rules that apply to shiny and to non-shiny Pokémon
+    private final long[] shinyMask;
+    private final long[] plainMask;
+    // Rules that don't look at the Pokémon, the only ones for events without one
+    private final long[] pokemonFree;
+    // Indexed by source, then by rule
+    private final int[][] minLevel;
+    private final int[][] bonus;
+    private final int[][] perLevel;
+    private final double[][] multiplier;
+
+    private XpRuleTable(int sources) {
+        base = new int[sources];
+        speciesMasks = new long[sources][];
+        unconditional = new long[sources];
+        typed = new long[sources];
+        shinyMask = new long[sources];
+        plainMask = new long[sources];
+        pokemonFree = new long[sources];
+        minLevel = new int[sources][];
+        bonus = new int[sources][];
+        perLevel = new int[sources][];
+        multiplier = new double[sources][];
+    }
+
+    /**
+     * Base XP only, used until the Pokémon registries are loaded
+     */
+    public static XpRuleTable base(Config config) {
+        return compile(config, List.of(), List.of());
+    }
+
+    /**
+     * Compile the configured rules against the loaded species
+     */
+    public static XpRuleTable compile(Config config) {
+        return compile(config, config.getXpRuleList(), PokemonSpecies.INSTANCE.getSpecies());
+    }
+
+    private static XpRuleTable compile(Config config, List<XpRule> allRules, Collection<Species> allSpecies) {
+        XpSource[] sources = XpSource.values();
+        XpRuleTable table = new XpRuleTable(sources.length);
+
+        int maxDex = 0;
+        for (Species species : allSpecies) {
+            maxDex = Math.max(maxDex, species.getNationalPokedexNumber());
+        }
+        for (XpRule rule : allRules) {
+            for (String event : rule.getEvents()) {
+                if (!isSource(event)) {
+                    CobblePass.LOGGER.warn("Unknown event " + event + " in xpRules; expected one of CATCH, DEFEAT, EVOLVE, HATCH, TRADE, BATTLE_WIN");
+                }
+            }
+            for (String type : rule.getTypes()) {
+                if (ElementalTypes.INSTANCE.get(type) == null) {
+                    CobblePass.LOGGER.warn("Unknown type " + type + " in xpRules entry " + rule.toJson());
+                }
+            }
+        }
+
+        for (XpSource source : sources) {
+            int s = source.ordinal();
+            table.base[s] = config.getBaseXp(source);
+
+            List<XpRule> rules = new ArrayList<>();
+            for (XpRule rule : allRules) {
+                if (appliesTo(rule, source)) {
+                    rules.add(rule);
+                }
+            }
+            if (rules.size() > MAX_RULES) {
+                CobblePass.LOGGER.warn("Only the first " + MAX_RULES + " xpRules for " + source + " are used");
+                rules = rules.subList(0, MAX_RULES);
+            }
+
+            int count = rules.size();
+            table.speciesMasks[s] = new long[maxDex + 1];
+            table.minLevel[s] = new int[count];
+            table.bonus[s] = new int[count];
+            table.perLevel[s] = new int[count];
+            table.multiplier[s] = new double[count];
+            for (int i = 0; i < count; i++) {
+                XpRule rule = rules.get(i);
+                long bit = 1L << i;
+                table.minLevel[s][i] = rule.getMinLevel();
+                table.bonus[s][i] = rule.getBonus();
+                table.perLevel[s][i] = rule.getPerLevel();
+                table.multiplier[s][i] = Math.max(0, rule.getMultiplier());
+                if (rule.getShiny() == null || rule.getShiny()) table.shinyMask[s] |= bit;
+                if (rule.getShiny() == null || !rule.getShiny()) table.plainMask[s] |= bit;
+                if (rule.getSpecies().isEmpty() && rule.getLabels().isEmpty()) {
+                    table.unconditional[s] |= bit;
+                }
+                if (!rule.hasPokemonCondition()) {
+                    table.pokemonFree[s] |= bit;
+                }
+                if (!rule.getTypes().isEmpty()) {
+                    table.typed[s] |= bit;
+                    for (String name : rule.getTypes()) {
+                        ElementalType type = ElementalTypes.INSTANCE.get(name);
+                        if (type != null) {
+                            table.typeMasks.computeIfAbsent(type, key -> new long[sources.length])[s] |= bit;
+                        }
+                    }
+                }
+                for (Species species : allSpecies) {
+                    int dex = species.getNationalPokedexNumber();
+                    if (dex >= 0 && matches(rule, species)) {
+                        table.speciesMasks[s][dex] |= bit;
+                    }
+                }
+            }
+        }
+
+        if (!allSpecies.isEmpty()) {
+            for (XpRule rule : allRules) {
+                if (!rule.getSpecies().isEmpty() && allSpecies.stream().noneMatch(species -> matchesSpecies(rule, species))) {
+                    CobblePass.LOGGER.warn("xpRules entry " + rule.toJson() + " names no known species");
+                }
+            }
+            CobblePass.LOGGER.info("Compiled " + allRules.size() + " XP rules for " + allSpecies.size() + " species");
+        }
+        return table;
+    }
+
+    /**
+     * XP for an event involving the given Pokémon, or for an event without one when it is null
+     */
+    public int xpFor(XpSource source, Pokemon pokemon) {
+        int s = source.ordinal();
+        long mask;
+        int level;
+        if (pokemon == null) {
+            mask = pokemonFree[s];
+            level = 0;
+        } else {
+            int dex = pokemon.getSpecies().getNationalPokedexNumber();
+            long[] bySpecies = speciesMasks[s];
+            mask = dex >= 0 && dex < bySpecies.length ? bySpecies[dex] : unconditional[s];
+            mask &= pokemon.getShiny() ? shinyMask[s] : plainMask[s];
+            if ((mask & typed[s]) != 0) {
+                long typeMatches = 0;
+                for (ElementalType type : pokemon.getForm().getTypes()) {
+                    long[] byType = typeMasks.get(type);
+                    if (byType != null) {
+                        typeMatches |= byType[s];
+                    }
+                }
+                mask &= ~typed[s] | typeMatches;
+            }
+            level = pokemon.getLevel();
+        }
+        if (mask == 0) {
+            return base[s];
+        }
+
+        long xp = base[s];
+        double factor = 1.0;
+        int[] minLevels = minLevel[s];
+        while (mask != 0) {
+            int rule = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+            if (level < minLevels[rule]) {
+                continue;
+            }
+            xp += bonus[s][rule] + (long) perLevel[s][rule] * level;
+            factor *= multiplier[s][rule];
+        }
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, Math.round(xp * factor)));
+    }
+
+    private static boolean appliesTo(XpRule rule, XpSource source) {
+        if (rule.getEvents().isEmpty()) {
+            return true;
+        }
+        for (String event : rule.getEvents()) {
+            if (event.equalsIgnoreCase(source.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSource(String event) {
+        for (XpSource source : XpSource.values()) {
+            if (event.equalsIgnoreCase(source.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(XpRule rule, Species species) {
+        if (!rule.getSpecies().isEmpty() && !matchesSpecies(rule, species)) {
+            return false;
+        }
+        if (!rule.getLabels().isEmpty()) {
+            boolean labelled = false;
+            for (String label : species.getLabels()) {
+                labelled |= rule.getLabels().contains(label.toLowerCase());
+            }
+            return labelled;
+        }
+        return true;
+    }
+
+    private static boolean matchesSpecies(XpRule rule, Species species) {
+        String id = species.getResourceIdentifier().toString();
+        String name = species.getResourceIdentifier().getPath();
+        return rule.getSpecies().contains(id) || rule.getSpecies().contains(name);
+    }
+}
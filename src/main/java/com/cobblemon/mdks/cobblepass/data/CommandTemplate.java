@@ -0,0 +1,67 @@
+package com.cobblemon.mdks.cobblepass.data;
+
+import com.cobblemon.mdks.cobblepass.util.MessageTemplate;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+
+/**
+ * A command run by a reward, with its placeholders split out once when tiers are compiled.
+ * <p>
+ * Only constant commands (no placeholders) run as the server are cached: they are parsed
+ * once and the parse result is reused, with each grant's own server source mapped in,
+ * until the command dispatcher is replaced by a datapack reload. Brigadier checks node
+ * requirements while parsing, so the cache is only valid because every grant uses a
+ * server source with the same permissions; callers must not pass player sources.
+ * Success is reported through the source's result callback, see Reward.
+ * <p>
+ * Placeholders: %player%, %uuid%, %level% (the player's pass level), %season%, %tier%
+ * (the level of the reward) and %premium% (true for premium rewards).
+ */
+public final class CommandTemplate {
+    public static final String[] PLACEHOLDERS = {"player", "uuid", "level", "season", "tier", "premium"};
+
+    private final String text;
+    private final MessageTemplate template;
+    // Cached parse of a constant command and the dispatcher it was parsed with; server thread only
+    private ParseResults<CommandSourceStack> parsed;
+    private CommandDispatcher<CommandSourceStack> parsedWith;
+
+    private CommandTemplate(String text) {
+        this.text = text;
+        this.template = MessageTemplate.compileLenient(text, "%", "%", PLACEHOLDERS);
+    }
+
+    public static CommandTemplate compile(String command) {
+        String text = command.strip();
+        return new CommandTemplate(text.startsWith("/") ? text.substring(1) : text);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @param values The placeholder values, in the order of {@link #PLACEHOLDERS}
+     */
+    public String format(Object... values) {
+        return template.format(values);
+    }
+
+    /**
+     * Parse the command for a server source, reusing the cached parse where possible
+     * @param source A server command source, as created by the server for reward grants
+     */
+    public ParseResults<CommandSourceStack> parse(CommandDispatcher<CommandSourceStack> dispatcher,
+                                                  CommandSourceStack source, Object... values) {
+        if (!template.isConstant() || source.getEntity() != null) {
+            return dispatcher.parse(template.format(values), source);
+        }
+        if (parsed == null || parsedWith != dispatcher) {
+            parsed = dispatcher.parse(text, source);
+            parsedWith = dispatcher;
+        }
+        return Commands.mapSource(parsed, ignored -> source);
+    }
+}
@@ -0,0 +1,173 @@
+package com.cobblemon.mdks.cobblepass.data;
+
+import com.cobblemon.mod.common.api.abilities.Abilities;
+import com.cobblemon.mod.common.api.pokemon.Natures;
+import com.cobblemon.mod.common.api.pokemon.PokemonProperties;
+import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
+import com.cobblemon.mod.common.api.pokemon.stats.Stat;
+import com.cobblemon.mod.common.api.pokemon.stats.Stats;
+import com.cobblemon.mod.common.pokemon.FormData;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemon.mod.common.pokemon.Species;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The Pokémon a POKEMON reward gives, checked once when tiers are compiled:
+ * <pre>
+ * {"species": "pikachu", "form": "alola", "shiny": true, "level": 20, "ability": "static",
+ *  "nature": "timid", "ivs": {"speed": 31}, "evs": {"special_attack": 252}, "held_item": "minecraft:apple"}
+ * </pre>
+ * Only species is required. Anything left out is rolled as for a wild Pokémon.
+ */
+public final class PokemonRewardSpec {
+    private static final int MAX_IV = 31;
+    private static final int MAX_EV = 252;
+
+    private final Species species;
+    private final PokemonProperties properties;
+    private final Map<Stats, Integer> ivs;
+    private final Map<Stats, Integer> evs;
+    private final ItemStack heldItem;
+
+    private PokemonRewardSpec(Species species, PokemonProperties properties, Map<Stats, Integer> ivs,
+                              Map<Stats, Integer> evs, ItemStack heldItem) {
+        this.species = species;
+        this.properties = properties;
+        this.ivs = ivs;
+        this.evs = evs;
+        this.heldItem = heldItem;
+    }
+
+    /**
+     * @throws IllegalArgumentException naming the first invalid field
+     */
+    public static PokemonRewardSpec compile(JsonObject data, RegistryAccess registryAccess) {
+        if (data == null || !data.has("species")) {
+            throw new IllegalArgumentException("Pokémon reward has no species");
+        }
+        String name = data.get("species").getAsString().toLowerCase(Locale.ROOT);
+        Species species = PokemonSpecies.INSTANCE.getByName(name);
+        if (species == null) {
+            throw new IllegalArgumentException("unknown species " + name);
+        }
+
+        StringBuilder spec = new StringBuilder(species.getResourceIdentifier().getPath());
+        if (data.has("form")) {
+            String form = data.get("form").getAsString();
+            boolean known = false;
+            for (FormData formData : species.getForms()) {
+                known |= formData.getName().equalsIgnoreCase(form);
+            }
+            if (!known) {
+                throw new IllegalArgumentException(name + " has no form " + form);
+            }
+            spec.append(" form=").append(form);
+        }
+        if (data.has("shiny") && data.get("shiny").getAsBoolean()) {
+            spec.append(" shiny=yes");
+        }
+        if (data.has("level")) {
+            int level = data.get("level").getAsInt();
+            if (level < 1) {
+                throw new IllegalArgumentException("invalid level " + level);
+            }
+            spec.append(" level=").append(level);
+        }
+        if (data.has("ability")) {
+            String ability = data.get("ability").getAsString();
+            if (Abilities.INSTANCE.get(ability.toLowerCase(Locale.ROOT)) == null) {
+                throw new IllegalArgumentException("unknown ability " + ability);
+            }
+            spec.append(" ability=").append(ability.toLowerCase(Locale.ROOT));
+        }
+        if (data.has("nature")) {
+            String nature = data.get("nature").getAsString();
+            if (Natures.INSTANCE.getNature(nature.toLowerCase(Locale.ROOT)) == null) {
+                throw new IllegalArgumentException("unknown nature " + nature);
+            }
+            spec.append(" nature=").append(nature.toLowerCase(Locale.ROOT));
+        }
+
+        ItemStack heldItem = ItemStack.EMPTY;
+        if (data.has("held_item")) {
+            String id = data.get("held_item").getAsString();
+            ResourceLocation location = ResourceLocation.tryParse(id);
+            Item item = location != null ? BuiltInRegistries.ITEM.getOptional(location).orElse(Items.AIR) : Items.AIR;
+            if (item == Items.AIR) {
+                throw new IllegalArgumentException("unknown held item " + id);
+            }
+            heldItem = new ItemStack(item);
+        }
+
+        return new PokemonRewardSpec(species, PokemonProperties.Companion.parse(spec.toString()),
+                readStats(data, "ivs", MAX_IV), readStats(data, "evs", MAX_EV), heldItem);
+    }
+
+    private static Map<Stats, Integer> readStats(JsonObject data, String key, int max) {
+        Map<Stats, Integer> values = new EnumMap<>(Stats.class);
+        if (!data.has(key)) {
+            return values;
+        }
+        int total = 0;
+        for (Map.Entry<String, JsonElement> entry : data.getAsJsonObject(key).entrySet()) {
+            Stats stat = statOf(entry.getKey());
+            int value = entry.getValue().getAsInt();
+            if (stat == null) {
+                throw new IllegalArgumentException("unknown stat " + entry.getKey() + " in " + key);
+            }
+            if (value < 0 || value > max) {
+                throw new IllegalArgumentException(key + " " + entry.getKey() + " must be between 0 and " + max);
+            }
+            values.put(stat, value);
+            total += value;
+        }
+        if (max == MAX_EV && total > 510) {
+            throw new IllegalArgumentException("evs add up to more than 510");
+        }
+        return values;
+    }
+
+    private static Stats statOf(String name) {
+        return switch (name.toLowerCase(Locale.ROOT).replace("defense", "defence")) {
+            case "hp" -> Stats.HP;
+            case "attack", "atk" -> Stats.ATTACK;
+            case "defence", "def" -> Stats.DEFENCE;
+            case "special_attack", "spa" -> Stats.SPECIAL_ATTACK;
+            case "special_defence", "spd" -> Stats.SPECIAL_DEFENCE;
+            case "speed", "spe" -> Stats.SPEED;
+            default -> null;
+        };
+    }
+
+    public Species getSpecies() {
+        return species;
+    }
+
+    /**
+     * A new Pokémon matching the spec
+     */
+    public Pokemon create() {
+        Pokemon pokemon = properties.create();
+        for (Map.Entry<Stats, Integer> iv : ivs.entrySet()) {
+            pokemon.setIV((Stat) iv.getKey(), iv.getValue());
+        }
+        for (Map.Entry<Stats, Integer> ev : evs.entrySet()) {
+            pokemon.setEV((Stat) ev.getKey(), ev.getValue());
+        }
+        if (!heldItem.isEmpty()) {
+            pokemon.swapHeldItem(heldItem.copy(), false);
+        }
+        return pokemon;
+    }
+}
@@ -1,23 +1,68 @@
 package com.cobblemon.mdks.cobblepass.data;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.MailEntry;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+import com.cobblemon.mdks.cobblepass.util.Constants;
+import com.cobblemon.mod.common.Cobblemon;
+import com.cobblemon.mod.common.item.PokemonItem;
+import com.cobblemon.mod.common.pokemon.Species;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.context.ContextChain;
 import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
 import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.TagParser;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A reward as defined in tiers.json. Before it can be granted it is compiled once the
+ * registries are available (see {@link #compile(RegistryAccess)}): item NBT is parsed into
+ * a prototype stack that is copied on every grant, Pokémon are checked into a
+ * {@link PokemonRewardSpec} and commands are compiled into {@link CommandTemplate}s, so
+ * mistakes show up in the log at load time.
+ */
 public class Reward {
     private final RewardType type;
     private final JsonObject data;
     private final String command;
+    // Extra commands run together with command
+    private final List<String> commands;
+    // Only set for POOL rewards
+    private RewardPool pool;
+
+    // Set by compile
+    private boolean compiled;
+    private String error;
+    private ItemStack prototype = ItemStack.EMPTY;
+    private ItemStack displayItem = ItemStack.EMPTY;
+    private PokemonRewardSpec pokemon;
+    private List<CommandTemplate> commandTemplates = List.of();
 
     public Reward(RewardType type, JsonObject data, String command) {
+        this(type, data, command, List.of());
+    }
+
+    public Reward(RewardType type, JsonObject data, String command, List<String> commands) {
         this.type = type;
         this.data = data;
         this.command = command;
+        this.commands = commands;
     }
 
     public RewardType getType() {
@@ -32,83 +77,294 @@ public class Reward {
         return command;
     }
 
-    public ItemStack getItemStack(RegistryAccess registryAccess) {
-        if (type != RewardType.ITEM) {
-            return ItemStack.EMPTY;
-        }
+    public List<String> getCommands() {
+        return commands;
+    }
 
+    /**
+     * Validate the definition and build what granting it needs
+     * @return false if the reward is invalid; see {@link #getError()}
+     */
+    public boolean compile(RegistryAccess registryAccess) {
+        compiled = true;
+        error = null;
+        prototype = ItemStack.EMPTY;
+        displayItem = ItemStack.EMPTY;
+        pokemon = null;
+        commandTemplates = List.of();
         try {
-            CompoundTag tag = TagParser.parseTag(data.toString());
-            ItemStack stack = ItemStack.parse(registryAccess, tag).orElse(ItemStack.EMPTY);
-            if (tag.contains("Count")) {
-                stack.setCount(tag.getInt("Count"));
+            switch (type) {
+                case ITEM -> compileItem(registryAccess);
+                case POKEMON -> {
+                    pokemon = PokemonRewardSpec.compile(data, registryAccess);
+                    displayItem = PokemonItem.from(pokemon.create(), 1);
+                }
+                case COMMAND -> compileCommand();
+                case POOL -> {
+                    // Pools are compiled before the tiers that use them
+                    error = pool.getError();
+                    displayItem = new ItemStack(Items.CHEST);
+                }
             }
-            return stack;
         } catch (Exception e) {
-            return ItemStack.EMPTY;
+            error = e.getMessage() != null ? e.getMessage() : e.toString();
+        }
+        return error == null;
+    }
+
+    private void compileItem(RegistryAccess registryAccess) throws Exception {
+        if (data == null || !data.has("id")) {
+            error = "item reward has no id";
+            return;
+        }
+        CompoundTag tag = TagParser.parseTag(data.toString());
+        ItemStack stack = ItemStack.parse(registryAccess, tag).orElse(ItemStack.EMPTY);
+        if (stack.isEmpty()) {
+            error = "unknown or invalid item " + data.get("id").getAsString();
+            return;
+        }
+        if (tag.contains("Count")) {
+            stack.setCount(tag.getInt("Count"));
+        }
+        prototype = stack;
+        displayItem = stack;
+    }
+
+    private void compileCommand() {
+        // Older templates keep the command inside data
+        String text = command != null ? command
+                : data != null && data.has("command") ? data.get("command").getAsString() : null;
+        List<CommandTemplate> templates = new ArrayList<>();
+        if (text != null && !text.isBlank()) {
+            templates.add(CommandTemplate.compile(text));
+        }
+        for (String extra : commands) {
+            if (!extra.isBlank()) {
+                templates.add(CommandTemplate.compile(extra));
+            }
+        }
+        if (templates.isEmpty()) {
+            error = "command reward has no command";
+            return;
         }
+        commandTemplates = List.copyOf(templates);
+        if (text == null) {
+            text = commands.get(0);
+        }
+
+        if (data != null && data.has("id")) {
+            String id = data.get("id").getAsString();
+            ResourceLocation location = ResourceLocation.tryParse(id);
+            Item item = location != null ? BuiltInRegistries.ITEM.getOptional(location).orElse(null) : null;
+            if (item == null || item == Items.AIR) {
+                CobblePass.LOGGER.warn("Unknown display item " + id + " for command reward \"" + text + "\"");
+            } else {
+                displayItem = new ItemStack(item);
+            }
+        }
+    }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether the reward compiled without errors and can be granted
+     */
+    public boolean isValid() {
+        return compiled && error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public RewardPool getPool() {
+        return pool;
+    }
+
+    /**
+     * A short description for menus and logs, e.g. "16x Poké Ball"
+     */
+    public String describe() {
+        return switch (type) {
+            case ITEM -> prototype.isEmpty() ? String.valueOf(data != null ? data.get("id") : "item")
+                    : prototype.getCount() + "x " + prototype.getHoverName().getString();
+            case POKEMON -> {
+                String name = pokemon != null ? pokemon.getSpecies().getTranslatedName().getString()
+                        : data != null && data.has("species") ? data.get("species").getAsString() : "Pokémon";
+                boolean shiny = data != null && data.has("shiny") && data.get("shiny").getAsBoolean();
+                yield (shiny ? "Shiny " : "") + name + (data != null && data.has("level") ? " (Lv. " + data.get("level").getAsInt() + ")" : "");
+            }
+            case COMMAND -> data != null && data.has("display_name") ? data.get("display_name").getAsString() : "Command";
+            case POOL -> pool.getName();
+        };
+    }
+
+    /**
+     * What granting this reward for a tier gives: the rolls of a pool, or the reward itself
+     */
+    public List<Reward> roll(UUID playerId, int tier, boolean premium) {
+        return type == RewardType.POOL ? pool.roll(playerId, tier, premium) : List.of(this);
+    }
+
+    public Species getSpecies() {
+        return pokemon != null ? pokemon.getSpecies() : null;
     }
 
-    public void grant(ServerPlayer player) {
+    /**
+     * A new copy of the item this reward gives, or an empty stack for other rewards
+     */
+    public ItemStack getItemStack() {
+        return prototype.copy();
+    }
+
+    /**
+     * A new stack to show this reward in menus, or an empty stack if there is none
+     */
+    public ItemStack createDisplayItem() {
+        return displayItem.copy();
+    }
+
+    /**
+     * @param tier The level of the tier the reward belongs to, for placeholders
+     * @param premium Whether it is the tier's premium reward
+     */
+    public void grant(ServerPlayer player, int tier, boolean premium) {
+        if (!isValid()) {
+            CobblePass.LOGGER.error("Not granting invalid " + type + " reward to " + player.getName().getString()
+                    + ": " + (compiled ? error : "tiers have not been compiled"));
+            return;
+        }
         switch (type) {
             case ITEM:
-                ItemStack item = getItemStack(player.level().registryAccess());
-                if (!item.isEmpty()) {
-                    player.getInventory().add(item);
-                }
+                // Whatever doesn't fit goes to the mailbox
+                CobblePass.battlePass.getMailbox().give(player, prototype.copy());
                 break;
             case POKEMON:
-                if (data != null && !data.isEmpty()) {
-                    try {
-                        // Parse Pokemon data
-                        JsonObject pokemonData = data;
-                        String species = pokemonData.get("species").getAsString();
-                        
-                        // Build command with attributes
-                        StringBuilder cmd = new StringBuilder();
-                        cmd.append("givepokemonother ").append(player.getName().getString()).append(" ").append(species);
-                        
-                        if (pokemonData.has("shiny") && pokemonData.get("shiny").getAsBoolean()) {
-                            cmd.append(" shiny");
-                        }
-                        if (pokemonData.has("level")) {
-                            cmd.append(" level=").append(pokemonData.get("level").getAsInt());
-                        }
-                        if (pokemonData.has("ability")) {
-                            cmd.append(" ability=").append(pokemonData.get("ability").getAsString());
-                        }
-                        
-                        // Execute command as server
-                        CommandSourceStack source = player.getServer().createCommandSourceStack();
-                        player.getServer().getCommands().performPrefixedCommand(source, cmd.toString());
-                    } catch (Exception e) {
-                        CobblePass.LOGGER.error("Failed to grant Pokemon reward: " + e.getMessage());
-                    }
-                }
+                grantPokemon(player, tier, premium);
                 break;
             case COMMAND:
-                if (command != null && !command.isEmpty()) {
-                    // Replace placeholders in command
-                    String finalCommand = command
-                        .replace("%player%", player.getName().getString())
-                        .replace("%uuid%", player.getUUID().toString());
-                    
-                    // Always execute commands as server to ensure proper permissions
-                    CommandSourceStack source = player.getServer().createCommandSourceStack();
-                    player.getServer().getCommands().performPrefixedCommand(source, finalCommand);
+                runCommands(player, tier, premium);
+                break;
+            case POOL:
+                for (Reward reward : pool.roll(player.getUUID(), tier, premium)) {
+                    reward.grant(player, tier, premium);
                 }
                 break;
         }
     }
 
+    private void grantPokemon(ServerPlayer player, int tier, boolean premium) {
+        try {
+            // Goes to the PC when the party is full
+            if (!Cobblemon.INSTANCE.getStorage().getParty(player).add(pokemon.create())) {
+                fail(player, tier, premium, "no room in party or PC", true);
+            }
+        } catch (Exception e) {
+            fail(player, tier, premium, e.getMessage() != null ? e.getMessage() : e.toString(), true);
+        }
+    }
+
+    /**
+     * Run every command of the reward with one set of placeholder values. Commands are
+     * always executed as the server to ensure proper permissions.
+     * <p>
+     * Whether a command worked is only known from its result callback. When the grant
+     * itself comes from a command (claim, givereward, the mailbox menu), the reward
+     * commands are queued behind it and report later, so failure is decided there.
+     */
+    private void runCommands(ServerPlayer player, int tier, boolean premium) {
+        Commands commands = player.getServer().getCommands();
+        CommandDispatcher<CommandSourceStack> dispatcher = commands.getDispatcher();
+        CommandSourceStack server = player.getServer().createCommandSourceStack();
+        PlayerBattlePass pass = CobblePass.battlePass.getPlayerPass(player);
+        Object[] values = {player.getName().getString(), player.getUUID(), pass != null ? pass.getLevel() : 0,
+                CobblePass.config.getCurrentSeason(), tier, premium};
+
+        CommandBatch batch = new CommandBatch(player, tier, premium, commandTemplates.size());
+        for (int i = 0; i < commandTemplates.size(); i++) {
+            CommandTemplate template = commandTemplates.get(i);
+            int index = i;
+            String text = template.format(values);
+            CommandSourceStack source = server.withCallback((success, result) -> batch.report(index, text, success));
+            ParseResults<CommandSourceStack> parse = template.parse(dispatcher, source, values);
+            if (parse.getReader().canRead() || ContextChain.tryFlatten(parse.getContext().build(text)).isEmpty()) {
+                // Never executed, so the callback would never run
+                batch.report(index, text, false);
+                continue;
+            }
+            commands.performCommand(parse, text);
+        }
+    }
+
+    /**
+     * Collects the results of one grant's commands and reports the grant once all are in
+     */
+    private class CommandBatch {
+        private final ServerPlayer player;
+        private final int tier;
+        private final boolean premium;
+        private final boolean[] reported;
+        private final List<String> failed = new ArrayList<>();
+        private int remaining;
+
+        CommandBatch(ServerPlayer player, int tier, boolean premium, int size) {
+            this.player = player;
+            this.tier = tier;
+            this.premium = premium;
+            this.reported = new boolean[size];
+            this.remaining = size;
+        }
+
+        void report(int index, String text, boolean success) {
+            // Commands that fork report once per fork; the first result counts
+            if (reported[index]) {
+                return;
+            }
+            reported[index] = true;
+            if (!success) {
+                failed.add(text);
+            }
+            if (--remaining == 0 && !failed.isEmpty()) {
+                // Not mailed: taking it from the mailbox would run the same broken commands
+                // again, and a partly granted batch would run the others twice. An admin
+                // re-grants it with /bp givereward once the commands are fixed.
+                fail(player, tier, premium, "level " + tier + (premium ? " premium" : " free")
+                        + " command failed: " + String.join(", ", failed), false);
+                player.sendSystemMessage(Component.literal(Constants.MSG_REWARD_COMMAND_FAILED));
+            }
+        }
+    }
+
+    /**
+     * Report a failed grant and keep the reward in the player's mailbox so it is not lost
+     */
+    private void fail(ServerPlayer player, int tier, boolean premium, String error, boolean mail) {
+        CobblePass.battlePass.getRewardErrors().addFailure(player.getName().getString(), this, error);
+        if (mail) {
+            CobblePass.battlePass.getMailbox().deliver(player.getUUID(), List.of(MailEntry.reward(this, tier, premium)),
+                    Constants.MSG_REWARD_FAILED);
+        }
+    }
+
     public JsonObject toJson() {
         JsonObject json = new JsonObject();
+        if (type == RewardType.POOL) {
+            json.addProperty("$pool", pool.getName());
+            return json;
+        }
         json.addProperty("type", type.name());
         json.add("data", data);
         // Only include command for COMMAND type rewards
         if (type == RewardType.COMMAND && command != null) {
             json.addProperty("command", command);
         }
+        if (type == RewardType.COMMAND && !commands.isEmpty()) {
+            JsonArray list = new JsonArray();
+            commands.forEach(list::add);
+            json.add("commands", list);
+        }
         return json;
     }
 
@@ -116,7 +372,13 @@ public class Reward {
         RewardType type = RewardType.fromString(json.get("type").getAsString());
         JsonObject data = json.get("data").getAsJsonObject();
         String command = json.has("command") ? json.get("command").getAsString() : null;
-        return new Reward(type, data, command);
+        List<String> commands = new ArrayList<>();
+        if (json.has("commands")) {
+            for (JsonElement element : json.getAsJsonArray("commands")) {
+                commands.add(element.getAsString());
+            }
+        }
+        return new Reward(type, data, command, commands);
     }
 
     // Factory methods for different reward types
@@ -128,6 +390,12 @@ public class Reward {
         return new Reward(RewardType.POKEMON, pokemonData, null);
     }
 
+    public static Reward pool(RewardPool pool) {
+        Reward reward = new Reward(RewardType.POOL, new JsonObject(), null);
+        reward.pool = pool;
+        return reward;
+    }
+
     public static Reward command(String commandData, String displayId, String displayName) {
         JsonObject data = new JsonObject();
         data.addProperty("id", displayId); // Item to show in UI
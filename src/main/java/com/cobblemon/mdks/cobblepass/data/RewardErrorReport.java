@@ -0,0 +1,54 @@
+package com.cobblemon.mdks.cobblepass.data;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * What is wrong with the configured rewards: the ones that failed to compile, and the
+ * most recent grants that failed. Shown to admins by {@code /bp rewarderrors}.
+ */
+public class RewardErrorReport {
+    private static final int MAX_FAILURES = 50;
+
+    private final List<String> invalid = new ArrayList<>();
+    private final Deque<String> failures = new ArrayDeque<>();
+
+    /**
+     * Forget the invalid rewards of the last compile
+     */
+    public synchronized void clearInvalid() {
+        invalid.clear();
+    }
+
+    public synchronized void addInvalid(String reward, String error) {
+        invalid.add(reward + ": " + error);
+    }
+
+    /**
+     * Note a reward that could not be given to a player
+     */
+    public synchronized void addFailure(String player, Reward reward, String error) {
+        String failure = player + " did not receive a " + reward.getType() + " reward: " + error;
+        CobblePass.LOGGER.error(failure);
+        if (failures.size() == MAX_FAILURES) {
+            failures.removeFirst();
+        }
+        failures.addLast(failure);
+    }
+
+    public synchronized List<String> getInvalid() {
+        return new ArrayList<>(invalid);
+    }
+
+    public synchronized List<String> getFailures() {
+        return new ArrayList<>(failures);
+    }
+
+    public synchronized void clearFailures() {
+        failures.clear();
+    }
+}
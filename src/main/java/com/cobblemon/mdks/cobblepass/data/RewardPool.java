@@ -0,0 +1,151 @@
+package com.cobblemon.mdks.cobblepass.data;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.util.AliasTable;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.core.RegistryAccess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * A named table of weighted rewards in tiers.json that tiers use with {"$pool": "name"}.
+ * Each claim rolls the table {@code rolls} times. The alias table is built when the pool is
+ * loaded, so a roll costs the same however many entries the pool has.
+ * <p>
+ * Rolls are deterministic: the random generator is seeded from the pool's seed, the
+ * player, the season and the tier, so any result can be reproduced when auditing.
+ */
+public class RewardPool {
+    private final String name;
+    private final JsonObject json;
+    private final int rolls;
+    private final long seed;
+    private final List<Reward> rewards;
+    private final double[] chances;
+    private final AliasTable table;
+    private String error;
+
+    private RewardPool(String name, JsonObject json, int rolls, long seed, List<Reward> rewards, double[] weights) {
+        this.name = name;
+        this.json = json;
+        this.rolls = rolls;
+        this.seed = seed;
+        this.rewards = rewards;
+        this.table = new AliasTable(weights);
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        this.chances = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            chances[i] = weights[i] / total;
+        }
+    }
+
+    /**
+     * Read a pool definition. Entries either hold a reward or use one of the templates:
+     * {"weight": 5, "reward": {...}} or {"weight": 5, "$template": "name"}.
+     * @throws IllegalArgumentException if the definition is malformed
+     */
+    public static RewardPool fromJson(String name, JsonObject json, Map<String, JsonObject> templates) {
+        int rolls = json.has("rolls") ? json.get("rolls").getAsInt() : 1;
+        if (rolls < 1) {
+            throw new IllegalArgumentException("rolls must be at least 1");
+        }
+        long seed = json.has("seed") ? json.get("seed").getAsLong() : name.hashCode();
+
+        List<Reward> rewards = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray("entries")) {
+            JsonObject entry = element.getAsJsonObject();
+            JsonObject reward;
+            if (entry.has("$template")) {
+                reward = templates.get(entry.get("$template").getAsString());
+                if (reward == null) {
+                    throw new IllegalArgumentException("unknown template " + entry.get("$template").getAsString());
+                }
+            } else {
+                reward = entry.getAsJsonObject("reward");
+            }
+            rewards.add(Reward.fromJson(reward));
+            weights.add(entry.has("weight") ? entry.get("weight").getAsDouble() : 1);
+        }
+        return new RewardPool(name, json, rolls, seed, rewards, weights.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    /**
+     * Compile every reward in the pool. A pool with an invalid reward can't be rolled, so
+     * the odds of the others never shift silently.
+     * @return false if a reward is invalid; see {@link #getError()}
+     */
+    public boolean compile(RegistryAccess registryAccess) {
+        error = null;
+        for (int i = 0; i < rewards.size(); i++) {
+            if (!rewards.get(i).compile(registryAccess) && error == null) {
+                error = "entry " + (i + 1) + " of pool " + name + ": " + rewards.get(i).getError();
+            }
+        }
+        return error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JsonObject toJson() {
+        return json;
+    }
+
+    public int getRolls() {
+        return rolls;
+    }
+
+    public List<Reward> getRewards() {
+        return rewards;
+    }
+
+    /**
+     * The chance of each reward per roll, in the order of {@link #getRewards()}
+     */
+    public double getChance(int index) {
+        return chances[index];
+    }
+
+    /**
+     * Roll the pool for a player's claim of a tier
+     */
+    public List<Reward> roll(UUID playerId, int tier, boolean premium) {
+        int season = CobblePass.config.getCurrentSeason();
+        long state = seed;
+        state = mix(state ^ playerId.getMostSignificantBits());
+        state = mix(state ^ playerId.getLeastSignificantBits());
+        state = mix(state ^ season);
+        state = mix(state ^ (tier * 2L + (premium ? 1 : 0)));
+        SplittableRandom random = new SplittableRandom(state);
+
+        List<Reward> rolled = new ArrayList<>(rolls);
+        for (int i = 0; i < rolls; i++) {
+            int index = table.sample(random);
+            rolled.add(rewards.get(index));
+            CobblePass.LOGGER.info("Pool " + name + " rolled entry " + (index + 1) + " (" + rewards.get(index).describe()
+                    + ") for " + playerId + ", season " + season + ", " + (premium ? "premium" : "free") + " tier " + tier);
+        }
+        return rolled;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
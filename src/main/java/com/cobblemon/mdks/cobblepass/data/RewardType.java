@@ -3,7 +3,8 @@ package com.cobblemon.mdks.cobblepass.data;
 public enum RewardType {
     ITEM,             // Any mod's items (minecraft:, cobblemon:, etc)
     POKEMON,          // Pokemon rewards
-    COMMAND;          // Custom command execution
+    COMMAND,          // Custom command execution
+    POOL;             // Weighted random pick from a pool in tiers.json
 
     public static RewardType fromString(String type) {
         try {
@@ -1,8 +1,7 @@
 package com.cobblemon.mdks.cobblepass.listeners;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
-import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
-import com.cobblemon.mdks.cobblepass.config.Config;
+import com.cobblemon.mdks.cobblepass.battlepass.XpSource;
 import com.cobblemon.mdks.cobblepass.util.Logger;
 import com.cobblemon.mod.common.api.Priority;
 import com.cobblemon.mod.common.api.events.CobblemonEvents;
@@ -19,12 +18,10 @@ public class CatchPokemonListener {
 
     private static Unit handle(PokemonCapturedEvent event) {
         if (event.getPlayer() instanceof ServerPlayer player) {
-            PlayerBattlePass battlePass = CobblePass.battlePass.getPlayerPass(player);
-            if (battlePass != null) {
-                int xp = CobblePass.config.getCatchXP();
-                battlePass.addXP(xp);
-                LOGGER.debug("Awarded " + xp + " XP to " + player.getName().getString() + " for catching a Pokémon");
-            }
+            int xp = CobblePass.config.getXpRules().xpFor(XpSource.CATCH, event.getPokemon());
+            // Applied at the end of the tick, or once the pass is loaded if the player only just joined
+            CobblePass.battlePass.recordXP(player, XpSource.CATCH, xp);
+            LOGGER.debug("Awarded " + xp + " XP to " + player.getName().getString() + " for catching a Pokémon");
         }
         return Unit.INSTANCE;
     }
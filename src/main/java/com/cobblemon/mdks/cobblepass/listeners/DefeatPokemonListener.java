@@ -1,57 +1,40 @@
 package com.cobblemon.mdks.cobblepass.listeners;
 
 import com.cobblemon.mdks.cobblepass.CobblePass;
-import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
 import com.cobblemon.mdks.cobblepass.util.Logger;
 import com.cobblemon.mod.common.api.Priority;
 import com.cobblemon.mod.common.api.events.CobblemonEvents;
 import com.cobblemon.mod.common.api.events.battles.BattleFaintedEvent;
-import com.cobblemon.mod.common.api.battles.model.actor.BattleActor;
-
-import com.cobblemon.mod.common.battles.actor.PlayerBattleActor;
+import com.cobblemon.mod.common.api.events.battles.BattleFledEvent;
+import com.cobblemon.mod.common.api.events.battles.BattleVictoryEvent;
 import kotlin.Unit;
-import net.minecraft.server.level.ServerPlayer;
+
+import java.util.List;
 
 public class DefeatPokemonListener {
     private static final Logger LOGGER = new Logger("CobblePass");
 
     public static void register() {
         CobblemonEvents.BATTLE_FAINTED.subscribe(Priority.NORMAL, DefeatPokemonListener::handle);
+        CobblemonEvents.BATTLE_VICTORY.subscribe(Priority.NORMAL, DefeatPokemonListener::handleVictory);
+        CobblemonEvents.BATTLE_FLED.subscribe(Priority.NORMAL, DefeatPokemonListener::handleFled);
     }
 
     private static Unit handle(BattleFaintedEvent event) {
-        // Get the fainted Pokémon
-        BattleActor faintedActor = event.getKilled().getActor();
-        
-        // Iterate through all actors to find opponents
-        for (BattleActor actor : event.getBattle().getActors()) {
-            // Skip if it's the fainted actor or not a player
-            if (actor == faintedActor || !(actor instanceof PlayerBattleActor)) {
-                continue;
-            }
-            
-            PlayerBattleActor playerActor = (PlayerBattleActor) actor;
-            ServerPlayer player = playerActor.getEntity();
-            
-            if (player == null) {
-                LOGGER.debug("PlayerBattleActor does not have an associated ServerPlayer. Skipping.");
-                continue;
-            }
-
-            // Get the player's Battle Pass
-            PlayerBattlePass battlePass = CobblePass.battlePass.getPlayerPass(player);
-            if (battlePass == null) {
-                LOGGER.debug("No Battle Pass found for player: " + player.getName().getString());
-                continue;
-            }
-
-            // Award XP based on configuration
-            int xpToAward = CobblePass.config.getDefeatXP();
-            battlePass.addXP(xpToAward);
+        // Counted towards the players on the other side; awarded when the battle ends
+        CobblePass.battlePass.getBattleXpTracker().recordFaint(event.getBattle(), event.getKilled());
+        return Unit.INSTANCE;
+    }
 
-            LOGGER.debug("Awarded " + xpToAward + " XP to " + player.getName().getString() + " for defeating a Pokémon.");
-        }
+    private static Unit handleVictory(BattleVictoryEvent event) {
+        CobblePass.battlePass.getBattleXpTracker().end(event.getBattle(), event.getWinners());
+        LOGGER.debug("Awarded defeat XP for battle " + event.getBattle().getBattleId());
+        return Unit.INSTANCE;
+    }
 
+    private static Unit handleFled(BattleFledEvent event) {
+        // Fleeing keeps the XP earned so far but doesn't count as a win
+        CobblePass.battlePass.getBattleXpTracker().end(event.getBattle(), List.of());
         return Unit.INSTANCE;
     }
 }
@@ -5,6 +5,7 @@ import com.cobblemon.mod.common.api.events.pokemon.evolution.EvolutionCompleteEv
 import com.cobblemon.mod.common.api.Priority;
 import com.cobblemon.mod.common.pokemon.Pokemon;
 import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.XpSource;
 import net.minecraft.server.level.ServerPlayer;
 import kotlin.Unit;
 
@@ -18,7 +19,7 @@ public class EvolvePokemonListener {
             if (ownerUUID != null) {
                 ServerPlayer player = CobblePass.server.getPlayerList().getPlayer(ownerUUID);
                 if (player != null) {
-                    CobblePass.battlePass.addXP(player, CobblePass.config.getEvolveXP());
+                    CobblePass.battlePass.recordXP(player, XpSource.EVOLVE, CobblePass.config.getXpRules().xpFor(XpSource.EVOLVE, pokemon));
                 }
             }
             return Unit.INSTANCE;
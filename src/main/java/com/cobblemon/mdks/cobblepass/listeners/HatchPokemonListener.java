@@ -4,6 +4,7 @@ import com.cobblemon.mod.common.api.Priority;
 import com.cobblemon.mod.common.api.events.CobblemonEvents;
 import com.cobblemon.mod.common.api.events.pokemon.HatchEggEvent;
 import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.XpSource;
 import net.minecraft.server.level.ServerPlayer;
 import kotlin.Unit;
 
@@ -12,7 +13,8 @@ public class HatchPokemonListener {
         CobblemonEvents.HATCH_EGG_POST.subscribe(Priority.NORMAL, evt -> {
             ServerPlayer player = evt.getPlayer();
             if (player != null) {
-                CobblePass.battlePass.addXP(player, CobblePass.config.getHatchXP());
+                // The event doesn't carry the hatched Pokémon, so only rules without Pokémon conditions apply
+                CobblePass.battlePass.recordXP(player, XpSource.HATCH, CobblePass.config.getXpRules().xpFor(XpSource.HATCH, null));
             }
             return Unit.INSTANCE;
         });
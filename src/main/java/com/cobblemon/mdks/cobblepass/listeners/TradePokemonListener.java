@@ -5,19 +5,22 @@ import com.cobblemon.mod.common.api.events.CobblemonEvents;
 import com.cobblemon.mod.common.api.events.pokemon.TradeCompletedEvent;
 import com.cobblemon.mod.common.trade.PlayerTradeParticipant;
 import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.XpSource;
 import net.minecraft.server.level.ServerPlayer;
 import kotlin.Unit;
 
 public class TradePokemonListener {
     public static void register() {
         CobblemonEvents.TRADE_COMPLETED.subscribe(Priority.NORMAL, evt -> {
+            // Trades award XP for the trade itself, so only rules without Pokémon conditions apply
+            int xp = CobblePass.config.getXpRules().xpFor(XpSource.TRADE, null);
             if (evt.getTradeParticipant1() instanceof PlayerTradeParticipant) {
                 ServerPlayer player1 = ((PlayerTradeParticipant) evt.getTradeParticipant1()).getPlayer();
-                CobblePass.battlePass.addXP(player1, CobblePass.config.getTradeXP());
+                CobblePass.battlePass.recordXP(player1, XpSource.TRADE, xp);
             }
             if (evt.getTradeParticipant2() instanceof PlayerTradeParticipant) {
                 ServerPlayer player2 = ((PlayerTradeParticipant) evt.getTradeParticipant2()).getPlayer();
-                CobblePass.battlePass.addXP(player2, CobblePass.config.getTradeXP());
+                CobblePass.battlePass.recordXP(player2, XpSource.TRADE, xp);
             }
             return Unit.INSTANCE;
         });
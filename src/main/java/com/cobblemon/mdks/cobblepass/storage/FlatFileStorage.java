@@ -0,0 +1,198 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+import com.cobblemon.mdks.cobblepass.util.Utils;
+import com.google.gson.stream.JsonReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Stores each player's pass as config/cobblepass/players/&lt;uuid&gt;.json, or as a compact
+ * &lt;uuid&gt;.dat record when binary mode is enabled. Either format is read regardless of the
+ * mode, and a pass read from the other format is rewritten in the configured one on its
+ * next save. JSON is streamed to and from disk and written compactly unless pretty output
+ * is enabled.
+ */
+public class FlatFileStorage implements StorageBackend {
+    private static final String JSON_EXTENSION = ".json";
+    private static final String BINARY_EXTENSION = ".dat";
+    private static final String FILE_GLOB = "*.{json,dat}";
+
+    private final String directory;
+    private final boolean binary;
+    private final boolean pretty;
+    // Players whose file is still in the format that is not configured
+    private final Set<UUID> pendingMigration = ConcurrentHashMap.newKeySet();
+    // Files already found to be current by purgeStale, so each batch doesn't read them again
+    private final Set<String> purgeChecked = new HashSet<>();
+    private int purgeSeason = -1;
+
+    public FlatFileStorage(String directory, boolean binary, boolean pretty) {
+        this.directory = directory;
+        this.binary = binary;
+        this.pretty = pretty;
+        Utils.checkForDirectory(directory);
+    }
+
+    @Override
+    public PlayerBattlePass load(UUID playerId) {
+        File preferred = file(playerId, binary);
+        File other = file(playerId, !binary);
+
+        if (preferred.exists()) {
+            return read(playerId, preferred, binary);
+        }
+        if (other.exists()) {
+            PlayerBattlePass pass = read(playerId, other, !binary);
+            if (pass != null) {
+                pendingMigration.add(playerId);
+                pass.markDirty();
+            }
+            return pass;
+        }
+
+        // Create new player pass if file doesn't exist
+        PlayerBattlePass newPass = new PlayerBattlePass(playerId);
+        newPass.markDirty();
+        return newPass;
+    }
+
+    private PlayerBattlePass read(UUID playerId, File file, boolean binaryFile) {
+        try {
+            PlayerBattlePass pass = new PlayerBattlePass(playerId);
+            if (binaryFile) {
+                pass.fromBinary(Files.readAllBytes(file.toPath()));
+            } else {
+                try (JsonReader reader = Utils.GSON.newJsonReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+                    pass.readJson(reader);
+                }
+            }
+            CobblePass.LOGGER.debug("Loaded battle pass for " + playerId + " with level " + pass.getLevel() + " and XP " + pass.getXP());
+            return pass;
+        } catch (Exception e) {
+            CobblePass.LOGGER.error("Failed to load battle pass for " + playerId + ". The file may be corrupt.", e);
+
+            // Backup the corrupted file instead of allowing it to be overwritten.
+            File backupFile = new File(file.getPath() + ".corrupted");
+            if (file.renameTo(backupFile)) {
+                CobblePass.LOGGER.error("The corrupted file has been renamed to " + backupFile.getName() + " for manual review.");
+            }
+            return null;
+        }
+    }
+
+    @Override
+    public void save(PlayerBattlePass pass) {
+        UUID playerId = pass.getPlayerId();
+        String filename = playerId + (binary ? BINARY_EXTENSION : JSON_EXTENSION);
+        boolean written = binary
+                ? Utils.writeFileAtomic(directory, filename, pass.snapshotBinary())
+                : Utils.writeJsonAtomic(directory, filename, pretty, pass::snapshot);
+        if (!written) {
+            throw new IllegalStateException("Could not write " + filename);
+        }
+
+        if (pendingMigration.remove(playerId)) {
+            File old = file(playerId, !binary);
+            if (old.delete()) {
+                CobblePass.LOGGER.debug("Migrated battle pass for " + playerId + " to " + filename);
+            }
+        }
+        CobblePass.LOGGER.debug("Saved battle pass for " + playerId + " with level " + pass.getLevel() + " and XP " + pass.getXP());
+    }
+
+    @Override
+    public void saveAll(Collection<PlayerBattlePass> passes) {
+        for (PlayerBattlePass pass : passes) {
+            save(pass);
+        }
+    }
+
+    @Override
+    public synchronized int purgeStale(int season, int limit) {
+        if (season != purgeSeason) {
+            purgeChecked.clear();
+            purgeSeason = season;
+        }
+
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Utils.checkForDirectory(directory).toPath(), FILE_GLOB)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (purgeChecked.contains(name)) {
+                    continue;
+                }
+
+                UUID playerId;
+                try {
+                    playerId = UUID.fromString(name.substring(0, name.lastIndexOf('.')));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                PlayerBattlePass pass = read(playerId, file.toFile(), name.endsWith(BINARY_EXTENSION));
+                if (pass != null && pass.getSeason() == season) {
+                    purgeChecked.add(name);
+                    continue;
+                }
+                if (pass != null) {
+                    Files.deleteIfExists(file);
+                    pendingMigration.remove(playerId);
+                }
+                if (++deleted >= limit) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to remove battle pass data files of earlier seasons.", e);
+        }
+        return deleted;
+    }
+
+    @Override
+    public void forEach(Consumer<PlayerBattlePass> action) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Utils.checkForDirectory(directory).toPath(), FILE_GLOB)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean binaryFile = name.endsWith(BINARY_EXTENSION);
+                // Skip the non-preferred copy if both formats exist
+                if (binaryFile != binary && Files.exists(file.resolveSibling(swapExtension(name)))) {
+                    continue;
+                }
+
+                UUID playerId;
+                try {
+                    playerId = UUID.fromString(name.substring(0, name.lastIndexOf('.')));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                PlayerBattlePass pass = read(playerId, file.toFile(), binaryFile);
+                if (pass != null) {
+                    action.accept(pass);
+                }
+            }
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to read player battle pass data files.", e);
+        }
+    }
+
+    private File file(UUID playerId, boolean binaryFile) {
+        return new File(directory, playerId + (binaryFile ? BINARY_EXTENSION : JSON_EXTENSION));
+    }
+
+    private static String swapExtension(String name) {
+        String base = name.substring(0, name.lastIndexOf('.'));
+        return base + (name.endsWith(BINARY_EXTENSION) ? JSON_EXTENSION : BINARY_EXTENSION);
+    }
+}
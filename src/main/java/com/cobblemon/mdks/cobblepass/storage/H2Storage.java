@@ -0,0 +1,213 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Stores player passes in an embedded H2 database running inside the server process.
+ * Progress columns are indexed so leaderboards are a single query.
+ */
+public class H2Storage implements StorageBackend {
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS player_passes ("
+            + "uuid UUID PRIMARY KEY, "
+            + "version VARCHAR(16) NOT NULL, "
+            + "level INT NOT NULL, "
+            + "xp INT NOT NULL, "
+            + "premium BOOLEAN NOT NULL, "
+            + "claimed_free VARCHAR NOT NULL, "
+            + "claimed_premium VARCHAR NOT NULL, "
+            + "season INT)";
+    // Tables created before records were tagged with a season; NULL means the legacy season
+    private static final String ADD_SEASON = "ALTER TABLE player_passes ADD COLUMN IF NOT EXISTS season INT";
+    private static final String CREATE_INDEX = "CREATE INDEX IF NOT EXISTS idx_player_passes_progress "
+            + "ON player_passes (level DESC, xp DESC)";
+    private static final String COLUMNS = "uuid, version, level, xp, premium, claimed_free, claimed_premium, season";
+    private static final String UPSERT = "MERGE INTO player_passes (" + COLUMNS + ") KEY (uuid) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ONE = "SELECT " + COLUMNS + " FROM player_passes WHERE uuid = ?";
+    private static final String SELECT_ALL = "SELECT " + COLUMNS + " FROM player_passes";
+    private static final String SELECT_TOP = SELECT_ALL + " WHERE COALESCE(season, ?) = ? ORDER BY level DESC, xp DESC LIMIT ?";
+    private static final String DELETE_STALE = "DELETE FROM player_passes WHERE COALESCE(season, ?) <> ? LIMIT ?";
+
+    private final Connection connection;
+
+    public H2Storage(String databasePath) {
+        try {
+            // Use the driver directly; DriverManager can't see drivers loaded by the mod class loader
+            String url = "jdbc:h2:" + new File(databasePath).getAbsolutePath();
+            this.connection = new org.h2.Driver().connect(url, new Properties());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_TABLE);
+                statement.execute(ADD_SEASON);
+                statement.execute(CREATE_INDEX);
+            }
+            CobblePass.LOGGER.info("Opened battle pass database at " + databasePath);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to open battle pass database " + databasePath, e);
+        }
+    }
+
+    @Override
+    public synchronized PlayerBattlePass load(UUID playerId) {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_ONE)) {
+            statement.setObject(1, playerId);
+            try (ResultSet result = statement.executeQuery()) {
+                if (result.next()) {
+                    return read(result);
+                }
+            }
+        } catch (SQLException e) {
+            CobblePass.LOGGER.error("Failed to load battle pass for " + playerId, e);
+            return null;
+        }
+
+        PlayerBattlePass newPass = new PlayerBattlePass(playerId);
+        newPass.markDirty();
+        return newPass;
+    }
+
+    @Override
+    public void save(PlayerBattlePass pass) {
+        saveAll(List.of(pass));
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<PlayerBattlePass> passes) {
+        try {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+                for (PlayerBattlePass pass : passes) {
+                    bind(statement, pass);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to save " + passes.size() + " battle passes", e);
+        }
+    }
+
+    @Override
+    public synchronized int purgeStale(int season, int limit) {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_STALE)) {
+            statement.setInt(1, CobblePass.config.getLegacySeason());
+            statement.setInt(2, season);
+            statement.setInt(3, limit);
+            return statement.executeUpdate();
+        } catch (SQLException e) {
+            CobblePass.LOGGER.error("Failed to remove battle pass data of earlier seasons.", e);
+            return 0;
+        }
+    }
+
+    @Override
+    public synchronized void forEach(Consumer<PlayerBattlePass> action) {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(SELECT_ALL)) {
+            while (result.next()) {
+                action.accept(read(result));
+            }
+        } catch (SQLException e) {
+            CobblePass.LOGGER.error("Failed to read player battle pass data.", e);
+        }
+    }
+
+    @Override
+    public synchronized List<PlayerBattlePass> getTop(int limit, int season) {
+        List<PlayerBattlePass> top = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_TOP)) {
+            statement.setInt(1, CobblePass.config.getLegacySeason());
+            statement.setInt(2, season);
+            statement.setInt(3, limit);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    top.add(read(result));
+                }
+            }
+        } catch (SQLException e) {
+            CobblePass.LOGGER.error("Failed to read the battle pass leaderboard.", e);
+        }
+        return top;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            CobblePass.LOGGER.error("Failed to close battle pass database.", e);
+        }
+    }
+
+    private void bind(PreparedStatement statement, PlayerBattlePass pass) throws SQLException {
+        JsonObject json = pass.snapshot();
+        statement.setObject(1, pass.getPlayerId());
+        statement.setString(2, json.get("version").getAsString());
+        statement.setInt(3, json.get("level").getAsInt());
+        statement.setInt(4, json.get("xp").getAsInt());
+        statement.setBoolean(5, json.get("isPremium").getAsBoolean());
+        statement.setString(6, joinLevels(json.getAsJsonArray("claimedFreeRewards")));
+        statement.setString(7, joinLevels(json.getAsJsonArray("claimedPremiumRewards")));
+        statement.setInt(8, json.get("season").getAsInt());
+    }
+
+    private PlayerBattlePass read(ResultSet result) throws SQLException {
+        JsonObject json = new JsonObject();
+        json.addProperty("version", result.getString(2));
+        json.addProperty("level", result.getInt(3));
+        json.addProperty("xp", result.getInt(4));
+        json.addProperty("isPremium", result.getBoolean(5));
+        json.add("claimedFreeRewards", splitLevels(result.getString(6)));
+        json.add("claimedPremiumRewards", splitLevels(result.getString(7)));
+        int season = result.getInt(8);
+        if (!result.wasNull()) {
+            json.addProperty("season", season);
+        }
+
+        PlayerBattlePass pass = new PlayerBattlePass(result.getObject(1, UUID.class));
+        pass.fromJson(json);
+        return pass;
+    }
+
+    private static String joinLevels(JsonArray levels) {
+        StringBuilder joined = new StringBuilder();
+        for (JsonElement level : levels) {
+            if (joined.length() > 0) {
+                joined.append(',');
+            }
+            joined.append(level.getAsInt());
+        }
+        return joined.toString();
+    }
+
+    private static JsonArray splitLevels(String joined) {
+        JsonArray levels = new JsonArray();
+        if (joined != null && !joined.isEmpty()) {
+            for (String level : joined.split(",")) {
+                levels.add(Integer.parseInt(level));
+            }
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,308 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.ClaimBitmap;
+import com.cobblemon.mdks.cobblepass.battlepass.PassChangeListener;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Stores every pass in a fixed-width slot of one memory-mapped file. A UUID to slot index
+ * is built when the file is opened. Changes to loaded passes are written straight into
+ * their slot as they happen, and the OS writes the mapped pages back to disk, so there is
+ * nothing to serialize on the hot path.
+ *
+ * <pre>
+ * header: int magic, int version, int slot size, int slots in use
+ * slot:   long uuid msb, long uuid lsb, int level, int xp, int flags (bit 0: premium),
+ *         int season, 64 byte free claims bitmap, 64 byte premium claims bitmap
+ * </pre>
+ * Claims are only stored for levels below {@link #MAX_LEVELS}.
+ */
+public class MappedStorage implements StorageBackend, PassChangeListener {
+    public static final int MAX_LEVELS = ClaimBitmap.MAX_LEVELS;
+    private static final int MAGIC = 0x43505442;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int BITMAP_SIZE = MAX_LEVELS / 8;
+    private static final int LEVEL_OFFSET = 16;
+    private static final int XP_OFFSET = 20;
+    private static final int FLAGS_OFFSET = 24;
+    private static final int SEASON_OFFSET = 28;
+    private static final int FREE_OFFSET = 32;
+    private static final int PREMIUM_OFFSET = FREE_OFFSET + BITMAP_SIZE;
+    private static final int SLOT_SIZE = PREMIUM_OFFSET + BITMAP_SIZE;
+    private static final int FLAG_PREMIUM = 1;
+    private static final int INITIAL_SLOTS = 1024;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Map<UUID, Integer> index = new HashMap<>();
+    // The pass instance whose full state each slot was last written from this session. Weak,
+    // so passes dropped from memory can be collected; at most one entry per slot.
+    private final Map<UUID, WeakReference<PlayerBattlePass>> bound = new HashMap<>();
+    private MappedByteBuffer table;
+    private int capacity;
+    private int used;
+    private boolean warnedLevelLimit;
+
+    public MappedStorage(String path) {
+        this.file = Path.of(path);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean existing = channel.size() >= HEADER_SIZE;
+            map(Math.max(INITIAL_SLOTS, existing ? (int) ((channel.size() - HEADER_SIZE) / SLOT_SIZE) : 0));
+
+            if (existing) {
+                if (table.getInt(0) != MAGIC || table.getInt(8) != SLOT_SIZE) {
+                    throw new IllegalStateException(path + " is not a battle pass table or uses a different layout");
+                }
+                used = table.getInt(12);
+                for (int slot = 0; slot < used; slot++) {
+                    int base = offset(slot);
+                    index.put(new UUID(table.getLong(base), table.getLong(base + 8)), slot);
+                }
+            } else {
+                table.putInt(0, MAGIC);
+                table.putInt(4, VERSION);
+                table.putInt(8, SLOT_SIZE);
+                table.putInt(12, 0);
+            }
+            CobblePass.LOGGER.info("Mapped battle pass table at " + path + " with " + used + " players");
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open battle pass table " + path, e);
+        }
+    }
+
+    @Override
+    public boolean isWriteThrough() {
+        return true;
+    }
+
+    @Override
+    public PlayerBattlePass load(UUID playerId) {
+        byte[] record;
+        synchronized (this) {
+            Integer slot = index.get(playerId);
+            record = slot != null ? readRecord(slot) : null;
+        }
+
+        PlayerBattlePass pass = new PlayerBattlePass(playerId);
+        if (record == null) {
+            pass.markDirty();
+        } else {
+            pass.fromBinary(record);
+        }
+        return pass;
+    }
+
+    @Override
+    public void save(PlayerBattlePass pass) {
+        byte[] record = pass.snapshotBinary();
+        synchronized (this) {
+            writeRecord(slotFor(pass.getPlayerId()), record);
+            bound.put(pass.getPlayerId(), new WeakReference<>(pass));
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<PlayerBattlePass> passes) {
+        for (PlayerBattlePass pass : passes) {
+            save(pass);
+        }
+    }
+
+    @Override
+    public synchronized int purgeStale(int season, int limit) {
+        int deleted = 0;
+        int slot = 0;
+        while (slot < used && deleted < limit) {
+            int base = offset(slot);
+            if (table.getInt(base + SEASON_OFFSET) == season) {
+                slot++;
+                continue;
+            }
+            // Fill the hole with the last slot so the table stays dense
+            UUID playerId = new UUID(table.getLong(base), table.getLong(base + 8));
+            index.remove(playerId);
+            bound.remove(playerId);
+            int last = used - 1;
+            if (slot != last) {
+                int lastBase = offset(last);
+                for (int i = 0; i < SLOT_SIZE; i++) {
+                    table.put(base + i, table.get(lastBase + i));
+                }
+                index.put(new UUID(table.getLong(base), table.getLong(base + 8)), slot);
+            }
+            setUsed(last);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public void forEach(Consumer<PlayerBattlePass> action) {
+        List<PlayerBattlePass> passes = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<UUID, Integer> entry : index.entrySet()) {
+                PlayerBattlePass pass = new PlayerBattlePass(entry.getKey());
+                pass.fromBinary(readRecord(entry.getValue()));
+                passes.add(pass);
+            }
+        }
+        passes.forEach(action);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            table.force();
+            channel.close();
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to close battle pass table " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void onProgress(PlayerBattlePass pass) {
+        // Read under our lock so the last write for a pass always carries its latest state
+        long progress = pass.getProgress();
+        int base = offset(slotFor(pass));
+        table.putInt(base + LEVEL_OFFSET, PlayerBattlePass.levelOf(progress));
+        table.putInt(base + XP_OFFSET, PlayerBattlePass.xpOf(progress));
+    }
+
+    @Override
+    public synchronized void onClaim(PlayerBattlePass pass, int level, boolean premium) {
+        int base = offset(slotFor(pass));
+        setClaimed(base + (premium ? PREMIUM_OFFSET : FREE_OFFSET), level);
+    }
+
+    @Override
+    public synchronized void onPremium(PlayerBattlePass pass) {
+        int base = offset(slotFor(pass));
+        table.putInt(base + FLAGS_OFFSET, pass.isPremium() ? FLAG_PREMIUM : 0);
+    }
+
+    // The first change from a pass writes its full state, since the slot may still hold an
+    // earlier season or a previous instance; later changes are written by the callbacks
+    private int slotFor(PlayerBattlePass pass) {
+        Integer slot = index.get(pass.getPlayerId());
+        WeakReference<PlayerBattlePass> written = bound.get(pass.getPlayerId());
+        if (slot != null && written != null && written.get() == pass) {
+            return slot;
+        }
+        slot = slotFor(pass.getPlayerId());
+        bound.put(pass.getPlayerId(), new WeakReference<>(pass));
+        long progress = pass.getProgress();
+        writeRecord(slot, PlayerRecordCodec.encode(pass.getSeason(), PlayerBattlePass.levelOf(progress), PlayerBattlePass.xpOf(progress), pass.isPremium(),
+                pass.getClaimedFreeRewards(), pass.getClaimedPremiumRewards()));
+        return slot;
+    }
+
+    private int slotFor(UUID playerId) {
+        Integer slot = index.get(playerId);
+        if (slot != null) {
+            return slot;
+        }
+        if (used == capacity) {
+            map(capacity * 2);
+        }
+        slot = used;
+        int base = offset(slot);
+        table.putLong(base, playerId.getMostSignificantBits());
+        table.putLong(base + 8, playerId.getLeastSignificantBits());
+        index.put(playerId, slot);
+        setUsed(used + 1);
+        return slot;
+    }
+
+    private void writeRecord(int slot, byte[] record) {
+        int base = offset(slot);
+        for (int i = LEVEL_OFFSET; i < SLOT_SIZE; i++) {
+            table.put(base + i, (byte) 0);
+        }
+        PlayerRecordCodec.decode(record, new PlayerRecordCodec.Sink() {
+            @Override
+            public void season(int season) {
+                table.putInt(base + SEASON_OFFSET, season);
+            }
+
+            @Override
+            public void progress(int level, int xp, boolean premium) {
+                table.putInt(base + LEVEL_OFFSET, level);
+                table.putInt(base + XP_OFFSET, xp);
+                table.putInt(base + FLAGS_OFFSET, premium ? FLAG_PREMIUM : 0);
+            }
+
+            @Override
+            public void claimed(int level, boolean premium) {
+                setClaimed(base + (premium ? PREMIUM_OFFSET : FREE_OFFSET), level);
+            }
+        });
+    }
+
+    private byte[] readRecord(int slot) {
+        int base = offset(slot);
+        return PlayerRecordCodec.encode(table.getInt(base + SEASON_OFFSET), table.getInt(base + LEVEL_OFFSET), table.getInt(base + XP_OFFSET),
+                (table.getInt(base + FLAGS_OFFSET) & FLAG_PREMIUM) != 0,
+                readClaimed(base + FREE_OFFSET), readClaimed(base + PREMIUM_OFFSET));
+    }
+
+    private void setClaimed(int bitmap, int level) {
+        if (level < 0 || level >= MAX_LEVELS) {
+            if (!warnedLevelLimit) {
+                warnedLevelLimit = true;
+                CobblePass.LOGGER.warn("The mapped storage only keeps claims for levels below " + MAX_LEVELS);
+            }
+            return;
+        }
+        int at = bitmap + (level >>> 3);
+        table.put(at, (byte) (table.get(at) | (1 << (level & 7))));
+    }
+
+    private ClaimBitmap readClaimed(int bitmap) {
+        ClaimBitmap levels = new ClaimBitmap();
+        for (int i = 0; i < BITMAP_SIZE; i++) {
+            int bits = table.get(bitmap + i) & 0xFF;
+            while (bits != 0) {
+                levels.set((i << 3) + Integer.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return levels;
+    }
+
+    private void setUsed(int used) {
+        this.used = used;
+        table.putInt(12, used);
+    }
+
+    private void map(int slots) {
+        try {
+            table = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * SLOT_SIZE);
+            capacity = slots;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to map battle pass table " + file, e);
+        }
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+}
@@ -0,0 +1,144 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.battlepass.ClaimView;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encoding of a player's pass, written straight from and to the pass
+ * fields without building a JSON tree in between.
+ *
+ * <pre>
+ * byte    format version
+ * byte    flags (bit 0: premium)
+ * varint  season (since version 2)
+ * varint  level
+ * varint  xp
+ * varint  length, bytes   claimed free rewards bitmap (bit n set = level n claimed)
+ * varint  length, bytes   claimed premium rewards bitmap
+ * </pre>
+ * Version 1 records have no season; decoding them never calls {@link Sink#season(int)}.
+ */
+public final class PlayerRecordCodec {
+    public static final byte FORMAT_VERSION = 2;
+    private static final int FLAG_PREMIUM = 1;
+
+    private PlayerRecordCodec() {
+    }
+
+    public static byte[] encode(int season, int level, int xp, boolean premium, ClaimView claimedFree, ClaimView claimedPremium) {
+        // Claims may land while a live pass is encoded; size and write from one copy
+        long[] free = claimedFree.words();
+        long[] premiumWords = claimedPremium.words();
+        int freeBytes = bitmapLength(free);
+        int premiumBytes = bitmapLength(premiumWords);
+        int size = 2 + varIntSize(season) + varIntSize(level) + varIntSize(xp)
+                + varIntSize(freeBytes) + freeBytes
+                + varIntSize(premiumBytes) + premiumBytes;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(FORMAT_VERSION);
+        buffer.put((byte) (premium ? FLAG_PREMIUM : 0));
+        putVarInt(buffer, season);
+        putVarInt(buffer, level);
+        putVarInt(buffer, xp);
+        putBitmap(buffer, free, freeBytes);
+        putBitmap(buffer, premiumWords, premiumBytes);
+        return buffer.array();
+    }
+
+    /**
+     * Decode a record into the given sink
+     * @throws IllegalArgumentException if the record is truncated or from an unknown version
+     */
+    public static void decode(byte[] data, Sink sink) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte version = buffer.get();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported player record version " + version);
+            }
+            int flags = buffer.get();
+            if (version >= 2) {
+                sink.season(getVarInt(buffer));
+            }
+            int level = getVarInt(buffer);
+            int xp = getVarInt(buffer);
+            sink.progress(level, xp, (flags & FLAG_PREMIUM) != 0);
+            getBitmap(buffer, sink, false);
+            getBitmap(buffer, sink, true);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated player record", e);
+        }
+    }
+
+    /**
+     * Receives decoded values
+     */
+    public interface Sink {
+        void season(int season);
+
+        void progress(int level, int xp, boolean premium);
+
+        void claimed(int level, boolean premium);
+    }
+
+    private static int bitmapLength(long[] words) {
+        for (int i = words.length - 1; i >= 0; i--) {
+            if (words[i] != 0) {
+                int max = (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+                return (max >>> 3) + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static void putBitmap(ByteBuffer buffer, long[] words, int length) {
+        putVarInt(buffer, length);
+        for (int i = 0; i < length; i++) {
+            buffer.put((byte) (words[i >>> 3] >>> ((i & 7) << 3)));
+        }
+    }
+
+    private static void getBitmap(ByteBuffer buffer, Sink sink, boolean premium) {
+        int length = getVarInt(buffer);
+        for (int i = 0; i < length; i++) {
+            int bits = buffer.get() & 0xFF;
+            while (bits != 0) {
+                int bit = Integer.numberOfTrailingZeros(bits);
+                sink.claimed((i << 3) + bit, premium);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in player record");
+    }
+}
@@ -0,0 +1,165 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind persistence for player passes. Passes mark themselves dirty when they
+ * change and a single background I/O thread writes them out on a fixed interval, so any
+ * number of changes to one player between two flushes costs a single write. At most one
+ * interval of progress can be lost if the server dies without a clean shutdown.
+ * Player loads are run on the same thread, see {@link #submit(Supplier)}.
+ * <p>
+ * In journaled mode every flush also compacts the {@link XpJournal}: segments written
+ * before the flush started are archived once the passes have been saved.
+ */
+public class SaveQueue {
+    private final Supplier<Collection<PlayerBattlePass>> loadedPasses;
+    private final StorageBackend storage;
+    private final XpJournal journal;
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param loadedPasses Supplies the passes currently held in memory
+     * @param storage Where passes are written; only called on the I/O thread once started
+     * @param journal The journal compacted by each flush, or null when not journaling
+     */
+    public SaveQueue(Supplier<Collection<PlayerBattlePass>> loadedPasses, StorageBackend storage, XpJournal journal) {
+        this.loadedPasses = loadedPasses;
+        this.storage = storage;
+        this.journal = journal;
+    }
+
+    /**
+     * Start the I/O thread and the periodic flush
+     */
+    public synchronized void start(int intervalSeconds) {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CobblePass-IO");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushDirty, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        CobblePass.LOGGER.info("Battle pass saves will be flushed every " + intervalSeconds + " seconds");
+    }
+
+    /**
+     * Queue an immediate write of a single pass, e.g. on disconnect or after a claim.
+     * Falls back to writing on the calling thread if the queue is not running.
+     */
+    public synchronized CompletableFuture<Void> save(PlayerBattlePass pass) {
+        if (executor == null) {
+            write(pass);
+            return CompletableFuture.completedFuture(null);
+        }
+        pendingWrites.incrementAndGet();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                write(pass);
+            } finally {
+                pendingWrites.decrementAndGet();
+            }
+        }, executor);
+    }
+
+    /**
+     * Run a task on the I/O thread. Tasks run in submission order with saves, so a load
+     * queued after a save of the same player always sees the saved data.
+     */
+    public synchronized <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Write every loaded pass that changed since it was last written
+     */
+    public void flushDirty() {
+        // Everything journaled up to here is covered by the dirty passes collected below
+        long compacted = journal != null ? journal.roll() : -1;
+        List<PlayerBattlePass> dirty = new ArrayList<>();
+        for (PlayerBattlePass pass : loadedPasses.get()) {
+            if (pass.isDirty()) {
+                dirty.add(pass);
+            }
+        }
+        if (dirty.isEmpty()) {
+            archiveJournal(compacted);
+            return;
+        }
+
+        try {
+            storage.saveAll(dirty);
+            archiveJournal(compacted);
+            CobblePass.LOGGER.debug("Flushed " + dirty.size() + " battle passes, queue depth is now " + getQueueDepth());
+        } catch (Exception e) {
+            // Keep the passes dirty so the next flush retries them
+            dirty.forEach(PlayerBattlePass::markDirty);
+            CobblePass.LOGGER.error("Failed to save " + dirty.size() + " battle passes", e);
+        }
+    }
+
+    private void archiveJournal(long lastSegment) {
+        if (journal != null && lastSegment >= 0) {
+            journal.archiveUpTo(lastSegment);
+        }
+    }
+
+    private void write(PlayerBattlePass pass) {
+        try {
+            storage.save(pass);
+        } catch (Exception e) {
+            // Keep the pass dirty so the next flush retries it
+            pass.markDirty();
+            CobblePass.LOGGER.error("Failed to save battle pass for " + pass.getPlayerId(), e);
+        }
+    }
+
+    /**
+     * Number of passes waiting to be written, counting dirty passes and queued writes
+     */
+    public int getQueueDepth() {
+        int dirty = 0;
+        for (PlayerBattlePass pass : loadedPasses.get()) {
+            if (pass.isDirty()) {
+                dirty++;
+            }
+        }
+        return dirty + pendingWrites.get();
+    }
+
+    /**
+     * Stop the I/O thread after draining queued writes, then flush whatever is still dirty
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            CobblePass.LOGGER.info("Stopping battle pass save queue with queue depth " + getQueueDepth());
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    CobblePass.LOGGER.warn("Timed out waiting for queued battle pass saves, flushing on the current thread");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+        flushDirty();
+    }
+}
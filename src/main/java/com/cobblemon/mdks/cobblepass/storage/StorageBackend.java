@@ -0,0 +1,106 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+import com.cobblemon.mdks.cobblepass.util.Constants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Persistence for player passes. Implementations are called from the I/O thread and
+ * must be safe to use from more than one thread.
+ */
+public interface StorageBackend {
+    Comparator<PlayerBattlePass> BY_PROGRESS = Comparator
+            .comparingInt(PlayerBattlePass::getLevel)
+            .thenComparingInt(PlayerBattlePass::getXP);
+
+    /**
+     * Load a player's pass, or a new pass if nothing is stored for them yet.
+     * Returns null if stored data exists but could not be read.
+     */
+    PlayerBattlePass load(UUID playerId);
+
+    /**
+     * Like {@link #load(UUID)}, but a record left over from another season counts as no
+     * record at all, since it may not have been cleaned up yet
+     */
+    default PlayerBattlePass loadCurrent(UUID playerId, int season) {
+        PlayerBattlePass pass = load(playerId);
+        if (pass != null && pass.getSeason() != season) {
+            pass = new PlayerBattlePass(playerId);
+            pass.markDirty();
+        }
+        return pass;
+    }
+
+    /**
+     * Save a single pass. Implementations take the data through {@link PlayerBattlePass#snapshot()}
+     * so the pass is marked clean exactly when its state is captured.
+     */
+    void save(PlayerBattlePass pass);
+
+    /**
+     * Save several passes in one go
+     */
+    void saveAll(Collection<PlayerBattlePass> passes);
+
+    /**
+     * Delete up to limit records that belong to a season other than the given one
+     * @return How many were deleted; less than limit once none are left
+     */
+    int purgeStale(int season, int limit);
+
+    /**
+     * Visit every stored pass
+     */
+    void forEach(Consumer<PlayerBattlePass> action);
+
+    /**
+     * The passes of the given season with the highest level and XP, best first
+     */
+    default List<PlayerBattlePass> getTop(int limit, int season) {
+        PriorityQueue<PlayerBattlePass> top = new PriorityQueue<>(BY_PROGRESS);
+        forEach(pass -> {
+            if (pass.getSeason() != season) {
+                return;
+            }
+            top.add(pass);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<PlayerBattlePass> result = new ArrayList<>(top);
+        result.sort(BY_PROGRESS.reversed());
+        return result;
+    }
+
+    /**
+     * Whether changes to loaded passes reach storage as they happen, through the backend
+     * also being their {@link com.cobblemon.mdks.cobblepass.battlepass.PassChangeListener}
+     */
+    default boolean isWriteThrough() {
+        return false;
+    }
+
+    default void close() {
+    }
+
+    /**
+     * Create the backend named in config.json
+     */
+    static StorageBackend create(String type, boolean binaryFiles, boolean prettyJson) {
+        if (type.equalsIgnoreCase("H2")) {
+            return new H2Storage(Constants.CONFIG_DIR + "/" + Constants.DATABASE_FILE);
+        }
+        if (type.equalsIgnoreCase("MAPPED")) {
+            return new MappedStorage(Constants.CONFIG_DIR + "/" + Constants.TABLE_FILE);
+        }
+        return new FlatFileStorage(Constants.PLAYER_DATA_DIR, binaryFiles, prettyJson);
+    }
+}
@@ -0,0 +1,401 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.battlepass.PassChangeListener;
+import com.cobblemon.mdks.cobblepass.battlepass.PlayerBattlePass;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only log of pass changes used in journaled mode. XP gains, claims and premium
+ * changes are buffered as fixed-size records, and a background thread appends the buffer
+ * to the current segment and fsyncs it every few milliseconds, so one sync covers every
+ * change made since the last. Records hold absolute values, which makes replaying a
+ * record that is already part of a snapshot harmless.
+ * <p>
+ * Compaction rolls over to a new segment, writes the dirty passes to the storage backend
+ * and moves the older segments to journal/archive, where they are kept as an audit trail.
+ *
+ * <pre>
+ * long  timestamp (epoch millis)
+ * long  uuid most significant bits
+ * long  uuid least significant bits
+ * byte  type (1 progress, 2 free claim, 3 premium claim, 4 premium)
+ * int   level, claimed level or premium flag
+ * int   xp, or 0
+ * </pre>
+ */
+public class XpJournal implements PassChangeListener {
+    private static final int RECORD_SIZE = 33;
+    private static final byte PROGRESS = 1;
+    private static final byte CLAIM_FREE = 2;
+    private static final byte CLAIM_PREMIUM = 3;
+    private static final byte PREMIUM = 4;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_EXTENSION = ".log";
+
+    private final Path directory;
+    private final Path archive;
+    // Held while writing to the segment; appends only need the journal's own monitor
+    private final Object channelLock = new Object();
+    private ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+    private ByteBuffer spare = ByteBuffer.allocate(RECORD_SIZE * 1024);
+    private List<CompletableFuture<Void>> waiting = new ArrayList<>();
+    private FileChannel channel;
+    private long segment;
+    private long segmentBytes;
+    private ScheduledExecutorService syncer;
+    // Segments kept by recovery for players whose pass could not be read; never compacted away
+    private final Set<Long> retained = ConcurrentHashMap.newKeySet();
+
+    public XpJournal(String directory) {
+        this.directory = Path.of(directory);
+        this.archive = this.directory.resolve("archive");
+    }
+
+    // Values are read while holding the journal lock, so the last record appended for a
+    // pass always carries its latest state
+    @Override
+    public synchronized void onProgress(PlayerBattlePass pass) {
+        long progress = pass.getProgress();
+        append(PROGRESS, pass.getPlayerId(), PlayerBattlePass.levelOf(progress), PlayerBattlePass.xpOf(progress));
+    }
+
+    @Override
+    public void onClaim(PlayerBattlePass pass, int level, boolean premium) {
+        append(premium ? CLAIM_PREMIUM : CLAIM_FREE, pass.getPlayerId(), level, 0);
+    }
+
+    @Override
+    public synchronized void onPremium(PlayerBattlePass pass) {
+        append(PREMIUM, pass.getPlayerId(), pass.isPremium() ? 1 : 0, 0);
+    }
+
+    private synchronized void append(byte type, UUID playerId, int a, int b) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+        buffer.putLong(System.currentTimeMillis())
+                .putLong(playerId.getMostSignificantBits())
+                .putLong(playerId.getLeastSignificantBits())
+                .put(type)
+                .putInt(a)
+                .putInt(b);
+    }
+
+    /**
+     * Complete once every change recorded so far has been synced to disk
+     */
+    public synchronized CompletableFuture<Void> commit() {
+        if (channel == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        waiting.add(future);
+        return future;
+    }
+
+    /**
+     * Apply every segment left behind by the last run on top of the stored snapshots,
+     * write the result back and archive the replayed segments. Records of players whose
+     * stored pass can't be read are kept in their segment for the next start, since
+     * replaying them onto an empty pass would lose everything from before the journal.
+     */
+    public void recover(StorageBackend storage) {
+        TreeMap<Long, Path> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, PlayerBattlePass> recovered = new LinkedHashMap<>();
+        Set<UUID> unreadable = new HashSet<>();
+        // Per segment the records that could not be replayed, or null if the segment could not be read
+        Map<Long, ByteBuffer> kept = new LinkedHashMap<>();
+        int records = 0;
+        for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+            Path file = segment.getValue();
+            ByteBuffer data;
+            try {
+                data = ByteBuffer.wrap(Files.readAllBytes(file));
+            } catch (IOException e) {
+                CobblePass.LOGGER.error("Failed to read battle pass journal segment " + file.getFileName(), e);
+                kept.put(segment.getKey(), null);
+                continue;
+            }
+            ByteBuffer skipped = ByteBuffer.allocate(data.remaining() - data.remaining() % RECORD_SIZE);
+            // A partial record at the end was cut off by the crash and is skipped
+            while (data.remaining() >= RECORD_SIZE) {
+                int position = data.position();
+                data.getLong();
+                UUID playerId = new UUID(data.getLong(), data.getLong());
+                byte type = data.get();
+                int a = data.getInt();
+                int b = data.getInt();
+
+                PlayerBattlePass pass = unreadable.contains(playerId) ? null
+                        : recovered.computeIfAbsent(playerId, id -> loadBase(storage, id));
+                if (pass == null) {
+                    if (unreadable.add(playerId)) {
+                        CobblePass.LOGGER.error("Keeping the journal records of " + playerId + " until their stored battle pass can be read");
+                    }
+                    skipped.put(data.array(), position, RECORD_SIZE);
+                    continue;
+                }
+                switch (type) {
+                    case PROGRESS -> pass.setProgress(a, b);
+                    case CLAIM_FREE -> pass.claimFreeReward(a);
+                    case CLAIM_PREMIUM -> pass.claimPremiumReward(a);
+                    case PREMIUM -> pass.setPremium(a != 0);
+                    default -> CobblePass.LOGGER.warn("Skipping unknown journal record type " + type + " in " + file.getFileName());
+                }
+                records++;
+            }
+            kept.put(segment.getKey(), skipped.flip());
+        }
+
+        storage.saveAll(recovered.values());
+        for (Map.Entry<Long, ByteBuffer> segment : kept.entrySet()) {
+            if (segment.getValue() == null) {
+                // Left for the next start
+                retained.add(segment.getKey());
+            } else if (segment.getValue().hasRemaining()) {
+                retained.add(segment.getKey());
+                keepOnly(segments.get(segment.getKey()), segment.getValue());
+            } else {
+                archive(segment.getKey(), segments.get(segment.getKey()));
+            }
+        }
+        CobblePass.LOGGER.info("Replayed " + records + " journal records for " + recovered.size() + " players");
+    }
+
+    private static PlayerBattlePass loadBase(StorageBackend storage, UUID playerId) {
+        try {
+            return storage.loadCurrent(playerId, CobblePass.config.getCurrentSeason());
+        } catch (RuntimeException e) {
+            CobblePass.LOGGER.error("Failed to load battle pass for " + playerId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Archive a segment and put back a copy holding only the given records
+     */
+    private void keepOnly(Path file, ByteBuffer records) {
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (records.hasRemaining()) {
+                    out.write(records);
+                }
+                out.force(false);
+            }
+            Files.createDirectories(archive);
+            Files.copy(file, archive.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to trim battle pass journal segment " + file.getFileName(), e);
+        }
+    }
+
+    /**
+     * Open a new segment and start syncing appended records every interval
+     */
+    public void start(int syncMillis) {
+        synchronized (channelLock) {
+            if (channel != null) {
+                return;
+            }
+            long last = Math.max(lastSegment(directory), lastSegment(archive));
+            openSegment(last + 1);
+        }
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CobblePass-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        CobblePass.LOGGER.info("Battle pass journal is synced every " + syncMillis + " ms");
+    }
+
+    private void sync() {
+        synchronized (channelLock) {
+            if (channel != null) {
+                drain();
+            }
+        }
+    }
+
+    // Caller holds channelLock
+    private void drain() {
+        ByteBuffer pending;
+        List<CompletableFuture<Void>> commits;
+        synchronized (this) {
+            if (buffer.position() == 0 && waiting.isEmpty()) {
+                return;
+            }
+            pending = buffer;
+            buffer = spare;
+            spare = pending;
+            commits = waiting;
+            waiting = new ArrayList<>();
+        }
+
+        pending.flip();
+        try {
+            while (pending.hasRemaining()) {
+                segmentBytes += channel.write(pending);
+            }
+            channel.force(false);
+            commits.forEach(future -> future.complete(null));
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to write battle pass journal segment " + segment, e);
+            commits.forEach(future -> future.completeExceptionally(e));
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Sync and close the current segment and continue in a new one, unless nothing has
+     * been written to it yet
+     * @return The newest segment that can be archived once the passes have been written
+     */
+    public long roll() {
+        synchronized (channelLock) {
+            if (channel == null) {
+                return -1;
+            }
+            drain();
+            if (segmentBytes == 0) {
+                return segment - 1;
+            }
+            long closed = segment;
+            closeSegment();
+            openSegment(closed + 1);
+            return closed;
+        }
+    }
+
+    /**
+     * Move every segment up to and including the given one to the archive, except those
+     * recovery had to keep
+     */
+    public void archiveUpTo(long lastSegment) {
+        for (Map.Entry<Long, Path> entry : listSegments(directory).headMap(lastSegment, true).entrySet()) {
+            if (!retained.contains(entry.getKey())) {
+                archive(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void archive(long number, Path file) {
+        try {
+            Files.createDirectories(archive);
+            Files.move(file, archive.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to archive battle pass journal segment " + number, e);
+        }
+    }
+
+    /**
+     * Archive everything journaled so far, e.g. when all player data is reset
+     */
+    public void discard() {
+        synchronized (this) {
+            buffer.clear();
+        }
+        retained.clear();
+        long closed = roll();
+        archiveUpTo(closed < 0 ? lastSegment(directory) : closed);
+    }
+
+    /**
+     * Stop syncing and close the segment after writing what is still buffered
+     */
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdown();
+            try {
+                syncer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            syncer = null;
+        }
+        synchronized (channelLock) {
+            if (channel != null) {
+                drain();
+                closeSegment();
+            }
+        }
+    }
+
+    private void openSegment(long number) {
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(directory.resolve(SEGMENT_PREFIX + number + SEGMENT_EXTENSION),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            segment = number;
+            segmentBytes = channel.size();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open battle pass journal segment " + number, e);
+        }
+    }
+
+    private void closeSegment() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to close battle pass journal segment " + segment, e);
+        }
+        channel = null;
+    }
+
+    private static long lastSegment(Path dir) {
+        TreeMap<Long, Path> segments = listSegments(dir);
+        return segments.isEmpty() ? 0 : segments.lastKey();
+    }
+
+    private static TreeMap<Long, Path> listSegments(Path dir) {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(dir)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXTENSION.length())), file);
+                } catch (NumberFormatException ignored) {
+                    // Not one of ours
+                }
+            }
+        } catch (IOException e) {
+            CobblePass.LOGGER.error("Failed to list battle pass journal segments in " + dir, e);
+        }
+        return segments;
+    }
+}
@@ -29,6 +29,12 @@ public class Constants {
     public static final String TIERS_FILE = "tiers.json";
     public static final String PLAYERS_PATH = CONFIG_DIR + "/players";
     public static final String PLAYER_DATA_DIR = PLAYERS_PATH;
+    public static final String DATABASE_FILE = "players";
+    public static final String SEASON_FILE = "last_season";
+    public static final String BOOSTS_FILE = "boosts.json";
+    public static final String TABLE_FILE = "players.tbl";
+    public static final String JOURNAL_DIR = CONFIG_DIR + "/journal";
+    public static final String MAILBOX_DIR = CONFIG_DIR + "/mailbox";
     
     // Version Info
     public static final String CONFIG_VERSION = "1.0";
@@ -44,8 +50,15 @@ public class Constants {
     public static final int DEFAULT_EVOLVE_XP = 75;
     public static final int DEFAULT_HATCH_XP = 50;
     public static final int DEFAULT_TRADE_XP = 25;
+    public static final int DEFAULT_BATTLE_WIN_XP = 0;
     public static final long DEFAULT_PREMIUM_COST = 1000;
     public static final boolean DEFAULT_ENABLE_PERMISSION_NODES = true;
+    public static final int DEFAULT_SAVE_INTERVAL_SECONDS = 30;
+    public static final int DEFAULT_OFFLINE_CACHE_SIZE = 256;
+    public static final String DEFAULT_STORAGE_BACKEND = "JSON";
+    public static final int DEFAULT_JOURNAL_SYNC_MILLIS = 100;
+    public static final int DEFAULT_NOTIFY_WINDOW_TICKS = 20;
+    public static final String DEFAULT_AUTO_CLAIM = "OFF";
     
     // Time Constants
     public static final long MILLIS_PER_SECOND = 1000L;
@@ -54,15 +67,31 @@ public class Constants {
     public static final long MILLIS_PER_DAY = MILLIS_PER_HOUR * 24;
     
     // Battle Pass Messages
-    public static final String MSG_XP_GAINED = PREFIX + "You gained §e%d§f XP! (§e%d§f/§e%d§f)";
-    public static final String MSG_LEVEL_UP = SUCCESS_PREFIX + "You reached level §e%d§f!";
+    // Notification templates use {placeholders}, see MessageTemplate
+    public static final String MSG_XP_GAINED = "§a+{xp} Battle Pass XP §7(§e{current}§7/§e{needed}§7)";
+    public static final String MSG_XP_LEVELED = "§a+{xp} Battle Pass XP§7, Level §e{from} §7→ §e{to}";
+    public static final String MSG_LEVEL_UP = "§6Level {level}!";
+    public static final String MSG_LEVEL_UP_SUBTITLE = "§eNew Battle Pass rewards are ready to claim";
     public static final String MSG_REWARD_CLAIM = SUCCESS_PREFIX + "You claimed the reward for level §e%d§f!";
     public static final String MSG_PREMIUM_UNLOCKED = SUCCESS_PREFIX + "You unlocked the Premium Battle Pass!";
     public static final String MSG_NO_REWARD = ERROR_PREFIX + "No reward available at level §e%d§f!";
+    public static final String MSG_CLAIMED_ALL = SUCCESS_PREFIX + "You claimed §e%d§f rewards!";
+    public static final String MSG_AUTO_CLAIMED = SUCCESS_PREFIX + "§e%d§f battle pass rewards were claimed for you!";
+    public static final String MSG_NOTHING_TO_CLAIM = ERROR_PREFIX + "You have no rewards to claim right now.";
     public static final String MSG_ALREADY_CLAIMED = ERROR_PREFIX + "You already claimed this reward!";
     public static final String MSG_ALREADY_CLAIMED_LEVEL = ERROR_PREFIX + "You already claimed the reward for level §e%d§f!";
     public static final String MSG_LEVEL_NOT_REACHED = ERROR_PREFIX + "You haven't reached level §e%d§f yet!";
     public static final String MSG_NOT_PREMIUM = ERROR_PREFIX + "This is a premium reward! Use §e/battlepass premium§f to unlock.";
+    public static final String MSG_BOOST_GLOBAL = SUCCESS_PREFIX + "A §ex%.2f§f battle pass XP boost is active for everyone for §e%s§f!";
+    public static final String MSG_BOOST_PLAYER = SUCCESS_PREFIX + "You received a §ex%.2f§f battle pass XP boost for §e%s§f!";
+    public static final String MSG_MAILBOX_DELIVERED = PREFIX + "A reward was sent to your mailbox. Use §e/battlepass mailbox§f to collect it.";
+    public static final String MSG_MAILBOX_WAITING = PREFIX + "You have rewards waiting in your mailbox! Use §e/battlepass mailbox§f to collect them.";
+    public static final String MSG_MAILBOX_EMPTY = ERROR_PREFIX + "Your mailbox is empty.";
+    public static final String MSG_MAILBOX_UNREADABLE = ERROR_PREFIX + "Your mailbox could not be read. Please contact an administrator.";
+    public static final String MSG_MAILBOX_FULL = ERROR_PREFIX + "Your inventory is full!";
+    public static final String MSG_REWARD_COMMAND_FAILED = ERROR_PREFIX + "A reward could not be given to you. Please contact an administrator.";
+    public static final String MSG_REWARD_FAILED = ERROR_PREFIX + "A reward could not be given to you and was sent to your mailbox.";
+    public static final String MSG_PASS_LOADING = ERROR_PREFIX + "Your battle pass is still loading, please try again in a moment.";
     public static final String MSG_CONFIG_RELOADED = SUCCESS_PREFIX + "Configuration reloaded!";
     
     // Season Messages
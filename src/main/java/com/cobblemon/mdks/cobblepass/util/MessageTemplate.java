@@ -0,0 +1,116 @@
+package com.cobblemon.mdks.cobblepass.util;
+
+import net.minecraft.network.chat.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message with named {placeholders}, split into literal text and placeholder slots once
+ * when it is created. Rendering only appends the pieces in order, so messages sent on
+ * every XP batch don't reparse a format string each time. Colour codes are kept as they
+ * are in the literal text.
+ *
+ * <pre>
+ * MessageTemplate template = MessageTemplate.compile("§a+{xp} XP", "xp");
+ * template.render(450);
+ * </pre>
+ */
+public final class MessageTemplate {
+    private final String[] literals;
+    // Argument index of the placeholder after each literal, or -1 after the last one
+    private final int[] slots;
+    private final int length;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.length = length;
+    }
+
+    /**
+     * @param template Text with {name} placeholders
+     * @param names Placeholder names, in the order their values are passed to {@link #render(Object...)}
+     * @throws IllegalArgumentException if the template uses a placeholder that isn't named
+     */
+    public static MessageTemplate compile(String template, String... names) {
+        return parse(template, "{", "}", true, names);
+    }
+
+    /**
+     * Like {@link #compile(String, String...)} with other delimiters, e.g. %player% in
+     * commands. Delimited text that isn't one of the names is kept as it is.
+     */
+    public static MessageTemplate compileLenient(String template, String open, String close, String... names) {
+        return parse(template, open, close, false, names);
+    }
+
+    private static MessageTemplate parse(String template, String open, String close, boolean strict, String... names) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < template.length()) {
+            int start = template.indexOf(open, i);
+            int end = start < 0 ? -1 : template.indexOf(close, start + open.length());
+            if (end < 0) {
+                literal.append(template, i, template.length());
+                break;
+            }
+            String name = template.substring(start + open.length(), end);
+            int slot = indexOf(names, name);
+            if (slot < 0) {
+                if (strict) {
+                    throw new IllegalArgumentException("Unknown placeholder " + open + name + close + " in \"" + template + "\"");
+                }
+                // Not ours; keep the opening delimiter and look again right after it
+                literal.append(template, i, start + open.length());
+                i = start + open.length();
+                continue;
+            }
+            literal.append(template, i, start);
+            literals.add(literal.toString());
+            slots.add(slot);
+            literal.setLength(0);
+            i = end + close.length();
+        }
+        literals.add(literal.toString());
+        slots.add(-1);
+        return new MessageTemplate(literals.toArray(new String[0]), slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Whether the template has no placeholders, so every format gives the same text
+     */
+    public boolean isConstant() {
+        return literals.length == 1;
+    }
+
+    public String format(Object... values) {
+        StringBuilder text = new StringBuilder(length + values.length * 8);
+        for (int i = 0; i < literals.length; i++) {
+            text.append(literals[i]);
+            if (slots[i] >= 0) {
+                text.append(values[slots[i]]);
+            }
+        }
+        return text.toString();
+    }
+
+    public Component render(Object... values) {
+        return Component.literal(format(values));
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,121 @@
+package com.cobblemon.mdks.cobblepass.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for deadlines counted in ticks. An item is put in the slot its
+ * deadline hashes to, and each tick only the items in one slot are looked at, so the cost
+ * per tick does not grow with the number of timers. Items due more than one turn of the
+ * wheel away carry the number of turns left, which is counted down each time their slot
+ * comes round, so every item costs O(1) per visit.
+ * <p>
+ * Not thread-safe; meant to be driven from the server thread.
+ */
+public class TimingWheel<T> {
+    private final List<Entry<T>>[] slots;
+    private final int mask;
+    private long tick;
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadline;
+        // Times the slot still has to come round before the item is due
+        private long rounds;
+
+        private Entry(T item, long deadline, long rounds) {
+            this.item = item;
+            this.deadline = deadline;
+            this.rounds = rounds;
+        }
+    }
+
+    /**
+     * @param size Number of slots, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int size) {
+        int slotCount = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.slots = new List[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.mask = slotCount - 1;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Schedule an item to expire once the wheel reaches the given tick. Deadlines that have
+     * already passed expire on the next tick.
+     */
+    public void schedule(T item, long deadline) {
+        long due = Math.max(deadline, tick + 1);
+        slots[(int) (due & mask)].add(new Entry<>(item, due, roundsUntil(due)));
+    }
+
+    /**
+     * Advance the wheel to the given tick, handing every item that became due to the callback
+     */
+    public void advanceTo(long target, Consumer<T> expired) {
+        if (target - tick > slots.length) {
+            // Fell behind by more than a turn; one pass over every slot catches up
+            tick = target;
+            for (List<Entry<T>> slot : slots) {
+                catchUp(slot, expired);
+            }
+            return;
+        }
+        while (tick < target) {
+            tick++;
+            expire(slots[(int) (tick & mask)], expired);
+        }
+    }
+
+    private void expire(List<Entry<T>> slot, Consumer<T> expired) {
+        if (slot.isEmpty()) {
+            return;
+        }
+        Iterator<Entry<T>> entries = slot.iterator();
+        while (entries.hasNext()) {
+            Entry<T> entry = entries.next();
+            if (entry.rounds > 0) {
+                entry.rounds--;
+            } else {
+                entries.remove();
+                expired.accept(entry.item);
+            }
+        }
+    }
+
+    private void catchUp(List<Entry<T>> slot, Consumer<T> expired) {
+        Iterator<Entry<T>> entries = slot.iterator();
+        while (entries.hasNext()) {
+            Entry<T> entry = entries.next();
+            if (entry.deadline <= tick) {
+                entries.remove();
+                expired.accept(entry.item);
+            } else {
+                entry.rounds = roundsUntil(entry.deadline);
+            }
+        }
+    }
+
+    private long roundsUntil(long deadline) {
+        return (deadline - tick - 1) / slots.length;
+    }
+
+    /**
+     * Drop every item and start over at tick 0
+     */
+    public void clear() {
+        tick = 0;
+        for (List<Entry<T>> slot : slots) {
+            slot.clear();
+        }
+    }
+}
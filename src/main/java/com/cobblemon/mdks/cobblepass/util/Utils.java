@@ -3,15 +3,22 @@ package com.cobblemon.mdks.cobblepass.util;
 import com.cobblemon.mdks.cobblepass.CobblePass;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -23,10 +30,18 @@ import java.util.function.Consumer;
 public class Utils {
 
     /**
-     * Create a new Gson instance with pretty printing
+     * Shared codecs; Gson instances are thread-safe and expensive to build, so they are
+     * created once. Player data is compact, config files are pretty printed for editing.
      */
-    public static Gson newGson() {
-        return new GsonBuilder().setPrettyPrinting().create();
+    public static final Gson GSON = new GsonBuilder().create();
+    public static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    /**
+     * Writes a JSON document to a stream
+     */
+    @FunctionalInterface
+    public interface JsonWriteAction {
+        void write(JsonWriter writer) throws IOException;
     }
 
     /**
@@ -190,6 +205,68 @@ public class Utils {
         }
     }
 
+    /**
+     * Write to a file synchronously by writing a temporary file and moving it into place,
+     * so a crash mid-write never leaves a truncated file behind
+     */
+    public static boolean writeFileAtomic(String directory, String filename, String data) {
+        return writeFileAtomic(directory, filename, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stream JSON straight into a file without building the document as a String first,
+     * moving it into place like {@link #writeFileAtomic(String, String, String)}
+     */
+    public static boolean writeJsonAtomic(String directory, String filename, boolean pretty, JsonWriteAction action) {
+        try {
+            File dir = checkForDirectory(directory);
+            Path path = Paths.get(dir.getAbsolutePath(), filename);
+            Path temp = Paths.get(dir.getAbsolutePath(), filename + ".tmp");
+
+            try (JsonWriter writer = (pretty ? PRETTY_GSON : GSON).newJsonWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+                action.write(writer);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (Exception e) {
+            CobblePass.LOGGER.error("Failed to write file: " + filename, e);
+            return false;
+        }
+    }
+
+    /**
+     * Parse a JSON file straight from disk
+     * @return The root object, or null if the file does not exist or is empty
+     */
+    public static JsonObject readJsonFile(String directory, String filename) throws IOException {
+        Path path = Paths.get(checkForDirectory(directory).getAbsolutePath(), filename);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (JsonReader reader = GSON.newJsonReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            JsonElement root = JsonParser.parseReader(reader);
+            return root.isJsonNull() ? null : root.getAsJsonObject();
+        }
+    }
+
+    /**
+     * Binary variant of {@link #writeFileAtomic(String, String, String)}
+     */
+    public static boolean writeFileAtomic(String directory, String filename, byte[] data) {
+        try {
+            File dir = checkForDirectory(directory);
+            Path path = Paths.get(dir.getAbsolutePath(), filename);
+            Path temp = Paths.get(dir.getAbsolutePath(), filename + ".tmp");
+
+            Files.write(temp, data);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (Exception e) {
+            CobblePass.LOGGER.error("Failed to write file: " + filename, e);
+            return false;
+        }
+    }
+
     /**
      * Format a message with color codes
      */
@@ -0,0 +1,160 @@
+package com.cobblemon.mdks.cobblepass.battlepass;
+
+import com.cobblemon.mdks.cobblepass.CobblePass;
+import com.cobblemon.mdks.cobblepass.config.Config;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerBattlePassTest {
+    private static final int THREADS = 8;
+
+    @BeforeAll
+    static void setUp() {
+        CobblePass.config = new Config();
+    }
+
+    @Test
+    void concurrentAddXpLosesNothing() throws Exception {
+        int addsPerThread = 2000;
+        int amount = 1;
+        PlayerBattlePass pass = new PlayerBattlePass(UUID.randomUUID());
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < addsPerThread; i++) {
+                pass.addXP(amount);
+            }
+        });
+
+        PlayerBattlePass expected = new PlayerBattlePass(UUID.randomUUID());
+        expected.addXP(THREADS * addsPerThread * amount);
+        assertTrue(expected.getLevel() < CobblePass.config.getMaxLevel(), "total must stay below the level cap");
+        assertEquals(expected.getLevel(), pass.getLevel());
+        assertEquals(expected.getXP(), pass.getXP());
+    }
+
+    @Test
+    void concurrentClaimsSucceedOnce() throws Exception {
+        int maxLevel = CobblePass.config.getMaxLevel();
+        for (int round = 0; round < 20; round++) {
+            PlayerBattlePass pass = new PlayerBattlePass(UUID.randomUUID());
+            int[] freeWins = new int[maxLevel + 1];
+            int[] premiumWins = new int[maxLevel + 1];
+
+            runConcurrently(thread -> {
+                for (int level = 1; level <= maxLevel; level++) {
+                    if (pass.claimFreeReward(level)) {
+                        synchronized (freeWins) {
+                            freeWins[level]++;
+                        }
+                    }
+                    if (pass.claimPremiumReward(level)) {
+                        synchronized (premiumWins) {
+                            premiumWins[level]++;
+                        }
+                    }
+                }
+            });
+
+            for (int level = 1; level <= maxLevel; level++) {
+                assertEquals(1, freeWins[level], "free level " + level);
+                assertEquals(1, premiumWins[level], "premium level " + level);
+            }
+        }
+    }
+
+    @Test
+    void snapshotsDuringClaimsAreConsistent() throws Exception {
+        int maxLevel = CobblePass.config.getMaxLevel();
+        for (int round = 0; round < 50; round++) {
+            PlayerBattlePass pass = new PlayerBattlePass(UUID.randomUUID());
+            AtomicBoolean done = new AtomicBoolean();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            // Claiming from the top down means any consistent read sees a contiguous run ending at maxLevel
+            Future<?> claimer = executor.submit(() -> {
+                for (int level = maxLevel; level >= 1; level--) {
+                    pass.claimFreeReward(level);
+                    pass.claimPremiumReward(level);
+                }
+                done.set(true);
+            });
+
+            do {
+                JsonObject json = pass.snapshot();
+                assertSuffix(levels(json, "claimedFreeRewards"), maxLevel);
+                assertSuffix(levels(json, "claimedPremiumRewards"), maxLevel);
+
+                PlayerBattlePass copy = new PlayerBattlePass(pass.getPlayerId());
+                copy.fromBinary(pass.snapshotBinary());
+                assertSuffix(claimed(copy.getClaimedFreeRewards()), maxLevel);
+                assertSuffix(claimed(copy.getClaimedPremiumRewards()), maxLevel);
+            } while (!done.get());
+
+            claimer.get();
+            executor.shutdown();
+            assertEquals(maxLevel, pass.getClaimedFreeRewards().count());
+        }
+    }
+
+    private static void assertSuffix(TreeSet<Integer> levels, int maxLevel) {
+        if (levels.isEmpty()) {
+            return;
+        }
+        assertEquals(maxLevel, levels.last(), "snapshot " + levels);
+        assertEquals(maxLevel - levels.first() + 1, levels.size(), "snapshot has gaps: " + levels);
+    }
+
+    private static TreeSet<Integer> levels(JsonObject json, String key) {
+        TreeSet<Integer> levels = new TreeSet<>();
+        for (JsonElement level : json.getAsJsonArray(key)) {
+            levels.add(level.getAsInt());
+        }
+        return levels;
+    }
+
+    private static TreeSet<Integer> claimed(ClaimView view) {
+        TreeSet<Integer> levels = new TreeSet<>();
+        view.forEach(levels::add);
+        return levels;
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(Worker worker) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            Callable<Void> task = () -> {
+                start.await();
+                worker.run(thread);
+                return null;
+            };
+            results.add(executor.submit(task));
+        }
+        start.countDown();
+        for (Future<Void> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}
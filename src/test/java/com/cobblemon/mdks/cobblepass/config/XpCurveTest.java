@@ -0,0 +1,84 @@
+package com.cobblemon.mdks.cobblepass.config;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class XpCurveTest {
+    private static final int MAX_LEVEL = 100;
+
+    @Test
+    void formulaMatchesThePerLevelCalculation() {
+        XpProgression progression = new XpProgression();
+        XpCurve curve = XpCurve.build(progression, MAX_LEVEL);
+
+        long total = 0;
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            assertEquals(formula(progression, level), curve.xpToNext(level), "xp to next at level " + level);
+            assertEquals(total, curve.totalXpFor(level), "total xp at level " + level);
+            total += formula(progression, level);
+        }
+        assertEquals(curve.totalXpFor(40) - curve.totalXpFor(10), curve.xpBetween(10, 40));
+    }
+
+    @Test
+    void levelForTotalXpMatchesTheLevelUpLoop() {
+        XpProgression progression = new XpProgression();
+        XpCurve curve = XpCurve.build(progression, MAX_LEVEL);
+
+        long last = curve.totalXpFor(MAX_LEVEL) + 5000;
+        for (long total = 0; total <= last; total += 997) {
+            assertLevelUp(progression, curve, total);
+        }
+        // Exactly on and just below every level boundary
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            assertLevelUp(progression, curve, curve.totalXpFor(level));
+            assertLevelUp(progression, curve, Math.max(0, curve.totalXpFor(level) - 1));
+        }
+    }
+
+    @Test
+    void manualValuesAreUsedPerLevel() {
+        JsonObject manual = new JsonObject();
+        for (int level = 2; level <= 11; level++) {
+            manual.addProperty(String.valueOf(level), level * 100);
+        }
+        JsonObject json = new JsonObject();
+        json.addProperty("mode", "MANUAL");
+        json.add("manualXpValues", manual);
+        XpProgression progression = new XpProgression();
+        progression.fromJson(json);
+
+        XpCurve curve = XpCurve.build(progression, 10);
+
+        assertEquals(200, curve.xpToNext(1));
+        assertEquals(1100, curve.xpToNext(10));
+        assertEquals(200 + 300 + 400, curve.totalXpFor(4));
+        assertEquals(4, curve.levelForTotalXp(900));
+        assertEquals(3, curve.levelForTotalXp(899));
+    }
+
+    private static void assertLevelUp(XpProgression progression, XpCurve curve, long total) {
+        // The loop passes used before the curve was precomputed
+        int level = 1;
+        long xp = total;
+        while (xp >= formula(progression, level)) {
+            if (level >= MAX_LEVEL) {
+                xp = formula(progression, level);
+                break;
+            }
+            xp -= formula(progression, level);
+            level++;
+        }
+
+        int reached = Math.min(curve.levelForTotalXp(total), MAX_LEVEL);
+        long remaining = Math.min(total - curve.totalXpFor(reached), curve.xpToNext(reached));
+        assertEquals(level, reached, "level for " + total + " xp");
+        assertEquals(xp, remaining, "xp left for " + total + " xp");
+    }
+
+    private static int formula(XpProgression progression, int level) {
+        return (int) (progression.getXpPerLevel() * Math.pow(progression.getXpMultiplier(), level - 1));
+    }
+}
@@ -0,0 +1,30 @@
+package com.cobblemon.mdks.cobblepass.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CommandTemplateTest {
+
+    @Test
+    void fillsEveryPlaceholder() {
+        CommandTemplate command = CommandTemplate.compile("give %player% diamond %tier% # %uuid% %level% %season% %premium%");
+
+        assertEquals("give Steve diamond 5 # 1234 12 3 true", command.format("Steve", "1234", 12, 3, 5, true));
+    }
+
+    @Test
+    void stripsWhitespaceAndLeadingSlash() {
+        CommandTemplate command = CommandTemplate.compile("  /say hi %player%  ");
+
+        assertEquals("say hi %player%", command.getText());
+        assertEquals("say hi Alex", command.format("Alex", "", 1, 1, 1, false));
+    }
+
+    @Test
+    void keepsPercentSignsThatAreNotPlaceholders() {
+        CommandTemplate command = CommandTemplate.compile("eco give %player% 50% %bonus%");
+
+        assertEquals("eco give Steve 50% %bonus%", command.format("Steve", "", 1, 1, 1, false));
+    }
+}
@@ -0,0 +1,107 @@
+package com.cobblemon.mdks.cobblepass.storage;
+
+import com.cobblemon.mdks.cobblepass.battlepass.ClaimBitmap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerRecordCodecTest {
+
+    @Test
+    void roundTripsEveryField() {
+        ClaimBitmap free = claims(1, 2, 63, 64, 100);
+        ClaimBitmap premium = claims(5, ClaimBitmap.MAX_LEVELS - 1);
+
+        Decoded decoded = decode(PlayerRecordCodec.encode(300, 42, 123456, true, free, premium));
+
+        assertEquals(300, decoded.season);
+        assertEquals(42, decoded.level);
+        assertEquals(123456, decoded.xp);
+        assertTrue(decoded.premium);
+        assertEquals(List.of(1, 2, 63, 64, 100), decoded.free);
+        assertEquals(List.of(5, ClaimBitmap.MAX_LEVELS - 1), decoded.premiumClaims);
+    }
+
+    @Test
+    void encodesEmptyBitmapsWithoutPayload() {
+        byte[] record = PlayerRecordCodec.encode(1, 1, 0, false, new ClaimBitmap(), new ClaimBitmap());
+
+        // version, flags, season, level, xp and two zero lengths
+        assertArrayEquals(new byte[]{PlayerRecordCodec.FORMAT_VERSION, 0, 1, 1, 0, 0, 0}, record);
+        Decoded decoded = decode(record);
+        assertTrue(decoded.free.isEmpty());
+        assertTrue(decoded.premiumClaims.isEmpty());
+    }
+
+    @Test
+    void decodesVersionOneWithoutSeason() {
+        // level 200 is a two byte varint; free claims 1 and 9, premium claim 3
+        byte[] record = {1, 1, (byte) 0xC8, 0x01, 7, 2, 0x02, 0x02, 1, 0x08};
+
+        Decoded decoded = decode(record);
+
+        assertEquals(-1, decoded.season);
+        assertEquals(200, decoded.level);
+        assertEquals(7, decoded.xp);
+        assertTrue(decoded.premium);
+        assertEquals(List.of(1, 9), decoded.free);
+        assertEquals(List.of(3), decoded.premiumClaims);
+    }
+
+    @Test
+    void rejectsTruncatedAndUnknownRecords() {
+        byte[] record = PlayerRecordCodec.encode(2, 10, 500, false, claims(4), claims(6));
+        byte[] truncated = new byte[record.length - 1];
+        System.arraycopy(record, 0, truncated, 0, truncated.length);
+
+        assertThrows(IllegalArgumentException.class, () -> decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> decode(new byte[]{(byte) (PlayerRecordCodec.FORMAT_VERSION + 1), 0}));
+        assertThrows(IllegalArgumentException.class, () -> decode(new byte[0]));
+    }
+
+    private static ClaimBitmap claims(int... levels) {
+        ClaimBitmap bitmap = new ClaimBitmap();
+        for (int level : levels) {
+            bitmap.set(level);
+        }
+        return bitmap;
+    }
+
+    private static Decoded decode(byte[] record) {
+        Decoded decoded = new Decoded();
+        PlayerRecordCodec.decode(record, decoded);
+        return decoded;
+    }
+
+    private static class Decoded implements PlayerRecordCodec.Sink {
+        int season = -1;
+        int level;
+        int xp;
+        boolean premium;
+        final List<Integer> free = new ArrayList<>();
+        final List<Integer> premiumClaims = new ArrayList<>();
+
+        @Override
+        public void season(int season) {
+            this.season = season;
+        }
+
+        @Override
+        public void progress(int level, int xp, boolean premium) {
+            this.level = level;
+            this.xp = xp;
+            this.premium = premium;
+        }
+
+        @Override
+        public void claimed(int level, boolean premium) {
+            (premium ? premiumClaims : free).add(level);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.cobblemon.mdks.cobblepass.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AliasTableTest {
+    private static final int SAMPLES = 1_000_000;
+
+    @Test
+    void samplesInProportionToWeight() {
+        double[] weights = {1, 2, 3, 4, 0, 0.5};
+        int[] counts = sample(new AliasTable(weights), 42);
+
+        double total = 10.5;
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / total, counts[i] / (double) SAMPLES, 0.003, "index " + i);
+        }
+        assertEquals(0, counts[4], "zero weight must never be picked");
+    }
+
+    @Test
+    void handlesUniformAndSkewedWeights() {
+        int[] uniform = sample(new AliasTable(new double[]{5, 5, 5, 5}), 7);
+        for (int count : uniform) {
+            assertEquals(0.25, count / (double) SAMPLES, 0.003);
+        }
+
+        int[] skewed = sample(new AliasTable(new double[]{1, 999}), 7);
+        assertEquals(0.001, skewed[0] / (double) SAMPLES, 0.0003);
+
+        int[] single = sample(new AliasTable(new double[]{3}), 7);
+        assertEquals(SAMPLES, single[0]);
+    }
+
+    @Test
+    void rejectsInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{1, -1}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{1, Double.NaN}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasTable(new double[]{1, Double.POSITIVE_INFINITY}));
+    }
+
+    private static int[] sample(AliasTable table, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,52 @@
+package com.cobblemon.mdks.cobblepass.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageTemplateTest {
+
+    @Test
+    void fillsPlaceholdersByName() {
+        MessageTemplate template = MessageTemplate.compile("§a+{xp} XP §7({level} → {next}), {xp} total", "xp", "level", "next");
+
+        assertEquals("§a+450 XP §7(3 → 4), 450 total", template.format(450, 3, 4));
+        assertFalse(template.isConstant());
+    }
+
+    @Test
+    void placeholdersAtTheEdgesAndSideBySide() {
+        MessageTemplate template = MessageTemplate.compile("{a}{b} and {a}", "a", "b");
+
+        assertEquals("12 and 1", template.format(1, 2));
+    }
+
+    @Test
+    void textWithoutPlaceholdersIsConstant() {
+        MessageTemplate template = MessageTemplate.compile("§aLevel up!");
+
+        assertTrue(template.isConstant());
+        assertEquals("§aLevel up!", template.format());
+        assertEquals("", MessageTemplate.compile("").format());
+    }
+
+    @Test
+    void unclosedBraceIsLiteral() {
+        assertEquals("5 {xp", MessageTemplate.compile("{xp} {xp", "xp").format(5));
+    }
+
+    @Test
+    void strictTemplatesRejectUnknownPlaceholders() {
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("+{xp} {bonus}", "xp"));
+    }
+
+    @Test
+    void lenientTemplatesKeepUnknownPlaceholders() {
+        MessageTemplate template = MessageTemplate.compileLenient("say 100%% done %player% %other% %player", "%", "%", "player");
+
+        assertEquals("say 100%% done Steve %other% %player", template.format("Steve"));
+    }
+}